@@ -0,0 +1,99 @@
+#!/usr/bin/env bash
+#
+# Startup report: plain build vs fast-start build (Spring AOT + prod profile + AppCDS archive).
+#
+# For each variant it starts the app RUNS times and measures
+#   - time to first request: JVM launch until GET /actuator/health answers 200
+#   - RSS of the process at that moment (VmRSS)
+# and writes target/startup/startup-report.csv plus a summary table.
+#
+# The app needs its usual configuration from the environment, e.g.
+#   SPRING_DATASOURCE_URL, SPRING_DATASOURCE_USERNAME, SPRING_DATASOURCE_PASSWORD,
+#   APP_JWT_SECRET, APP_JWT_EXPIRATION_MS
+# EXTRA_CLASSPATH is appended to the classpath of every run (e.g. a different JDBC driver jar);
+# it is used for the CDS training run too, because the archive only matches the same classpath.
+#
+# Usage: scripts/startup-report.sh    (RUNS=3 PORT=18090 MVN="sh ./mvnw" by default)
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+
+RUNS=${RUNS:-3}
+PORT=${PORT:-18090}
+OUT=target/startup
+MAIN=com.example.groceries_jwt_project.GroceriesJwtProjectApplication
+JAR_NAME=groceries-jwt-project-0.0.1-SNAPSHOT.jar
+EXTRA=${EXTRA_CLASSPATH:+:$EXTRA_CLASSPATH}
+
+# `clean` wipes target/, so each build is parked outside it until both are done
+JARS=$(mktemp -d)
+trap 'rm -rf "$JARS"' EXIT
+
+build() {
+    local name=$1; shift
+    ${MVN:-sh ./mvnw} -B -q "$@" clean package -DskipTests
+    cp "target/$JAR_NAME" "$JARS/$name.jar"
+}
+
+echo "Building baseline..."
+build baseline
+echo "Building fast-start (AOT, prod profile, no springdoc)..."
+build fast-start -Pfast-start
+
+# Both variants run from the extracted layout (thin app jar + lib/), so the only differences
+# are the ones under test: AOT, the prod profile without springdoc, and the CDS archive.
+rm -rf "$OUT"
+mkdir -p "$OUT"
+for name in baseline fast-start; do
+    java -Djarmode=tools -jar "$JARS/$name.jar" extract --destination "$OUT/$name" > /dev/null
+done
+
+FAST_OPTS=(-Dspring.aot.enabled=true -Dspring.profiles.active=prod)
+
+echo "Training run for the AppCDS archive..."
+java -XX:ArchiveClassesAtExit="$OUT/fast-start/app.jsa" "${FAST_OPTS[@]}" -Dspring.context.exit=onRefresh \
+    -cp "$OUT/fast-start/fast-start.jar$EXTRA" "$MAIN" > "$OUT/training.log" 2>&1
+
+# measure <variant> <run> <java args...>: prints "<ms>,<rss kB>"
+# The warm-up stage would hold /actuator/health at 503 for its whole duration; it is not startup, so it is off here.
+measure() {
+    local variant=$1 run=$2; shift 2
+    local start end pid status rss
+    start=$(date +%s%N)
+    java -Dserver.port="$PORT" -Dapp.warmup.enabled=false "$@" > "$OUT/$variant-$run.log" 2>&1 &
+    pid=$!
+    status=000
+    for _ in $(seq 1 1200); do
+        status=$(curl -s -o /dev/null -w '%{http_code}' "http://localhost:$PORT/actuator/health" || true)
+        [ "$status" = 200 ] && break
+        kill -0 "$pid" 2> /dev/null || break
+        sleep 0.1
+    done
+    end=$(date +%s%N)
+    rss=$(awk '/VmRSS/ {print $2}' "/proc/$pid/status" 2> /dev/null || echo 0)
+    kill "$pid" 2> /dev/null || true
+    wait "$pid" 2> /dev/null || true
+    if [ "$status" != 200 ]; then
+        echo "$variant run $run did not become healthy, see $OUT/$variant-$run.log" >&2
+        exit 1
+    fi
+    echo "$(( (end - start) / 1000000 )),$rss"
+}
+
+echo "variant,run,time_to_first_request_ms,rss_kb" > "$OUT/startup-report.csv"
+for run in $(seq 1 "$RUNS"); do
+    echo "Run $run/$RUNS..."
+    result=$(measure baseline "$run" -cp "$OUT/baseline/baseline.jar$EXTRA" "$MAIN")
+    echo "baseline,$run,$result" >> "$OUT/startup-report.csv"
+    result=$(measure fast-start "$run" -XX:SharedArchiveFile="$OUT/fast-start/app.jsa" "${FAST_OPTS[@]}" \
+        -cp "$OUT/fast-start/fast-start.jar$EXTRA" "$MAIN")
+    echo "fast-start,$run,$result" >> "$OUT/startup-report.csv"
+done
+
+echo
+awk -F, 'NR > 1 { ms[$1] += $3; rss[$1] += $4; n[$1]++ }
+    END {
+        printf "%-12s %10s %12s\n", "variant", "ttfr ms", "rss MB"
+        for (v in n) printf "%-12s %10.0f %12.1f\n", v, ms[v] / n[v], rss[v] / n[v] / 1024
+    }' "$OUT/startup-report.csv"
+echo "Details: $OUT/startup-report.csv"
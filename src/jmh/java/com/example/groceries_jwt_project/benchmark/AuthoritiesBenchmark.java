@@ -0,0 +1,41 @@
+package com.example.groceries_jwt_project.benchmark;
+
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.core.GrantedAuthority;
+
+import com.example.groceries_jwt_project.entity.User;
+import com.example.groceries_jwt_project.security.MyUserDetails;
+
+/** MyUserDetails.getAuthorities: called by JwtAuthFilter on every authenticated request. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AuthoritiesBenchmark {
+
+    private MyUserDetails userDetails;
+
+    @Setup
+    public void setUp() {
+        userDetails = new MyUserDetails(new User(1L, "aditya", "{bcrypt}hash", "ROLE_USER"));
+    }
+
+    @Benchmark
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return userDetails.getAuthorities();
+    }
+}
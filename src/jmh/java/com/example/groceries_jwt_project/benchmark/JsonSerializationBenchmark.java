@@ -0,0 +1,115 @@
+package com.example.groceries_jwt_project.benchmark;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.example.groceries_jwt_project.ResponseFormatConfig;
+import com.example.groceries_jwt_project.entity.Cart;
+import com.example.groceries_jwt_project.entity.Groceries;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
+/**
+ * Response serialization for GET /api/groceries (catalog page) and GET /api/cart.
+ * Sizes: a small cart, a typical catalog page, a full catalog dump.
+ * The catalog is also encoded as CBOR, Smile, ?fields=id,name,price and gzip'd JSON
+ * (the CPU side of the response-size comparison in ResponseFormatTest).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonSerializationBenchmark {
+
+    @Param({ "10", "100", "1000" })
+    public int size;
+
+    private ObjectMapper objectMapper;
+    private ObjectMapper cborMapper;
+    private ObjectMapper smileMapper;
+    private ObjectWriter sparseWriter;
+    private List<Groceries> groceries;
+    private List<Cart> cart;
+
+    @Setup
+    public void setUp() {
+        // Same defaults Spring Boot applies to the MVC ObjectMapper (JavaTimeModule, the "fields" filter, ...)
+        SimpleFilterProvider allFields = new SimpleFilterProvider()
+                .addFilter(ResponseFormatConfig.FIELDS_FILTER, SimpleBeanPropertyFilter.serializeAll());
+        objectMapper = Jackson2ObjectMapperBuilder.json().filters(allFields).build();
+        cborMapper = Jackson2ObjectMapperBuilder.json().filters(allFields).factory(new CBORFactory()).build();
+        smileMapper = Jackson2ObjectMapperBuilder.json().filters(allFields).factory(new SmileFactory()).build();
+        sparseWriter = objectMapper.writer(new SimpleFilterProvider().addFilter(ResponseFormatConfig.FIELDS_FILTER,
+                SimpleBeanPropertyFilter.filterOutAllExcept(Set.of("id", "name", "price"))));
+
+        LocalDateTime now = LocalDateTime.now();
+        groceries = new ArrayList<>(size);
+        cart = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            groceries.add(new Groceries((long) i, "product-" + i, "Fresh product number " + i + " from the local farm",
+                    1.5 + i, 50 + i % 20, now, now));
+            cart.add(new Cart((long) i, 1L, (long) i, 1 + i % 5, (1 + i % 5) * (1.5 + i)));
+        }
+    }
+
+    @Benchmark
+    public byte[] serializeGroceries() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(groceries);
+    }
+
+    @Benchmark
+    public byte[] serializeGroceriesCbor() throws JsonProcessingException {
+        return cborMapper.writeValueAsBytes(groceries);
+    }
+
+    @Benchmark
+    public byte[] serializeGroceriesSmile() throws JsonProcessingException {
+        return smileMapper.writeValueAsBytes(groceries);
+    }
+
+    @Benchmark
+    public byte[] serializeGroceriesSparse() throws JsonProcessingException {
+        return sparseWriter.writeValueAsBytes(groceries);
+    }
+
+    // JSON + gzip at Tomcat's default level: what compression costs per response
+    @Benchmark
+    public byte[] serializeGroceriesGzip() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(bytes)) {
+            objectMapper.writeValue(gzip, groceries);
+        }
+        return bytes.toByteArray();
+    }
+
+    @Benchmark
+    public byte[] serializeCart() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(cart);
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.groceries_jwt_project.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.example.groceries_jwt_project.security.JwtKeyRing;
+import com.example.groceries_jwt_project.security.JwtUtil;
+
+/**
+ * Token issue (login) and verify (every authenticated request) per signing algorithm.
+ * HS256 is the current default; ES256/EdDSA are the asymmetric JWKS modes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtBenchmark {
+
+    private static final long EXPIRATION_MS = 86_400_000L;
+
+    @Param({ "HS256", "ES256", "EdDSA" })
+    public String algorithm;
+
+    private JwtUtil jwtUtil;
+    private Authentication authentication;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        JwtKeyRing keyRing = new JwtKeyRing();
+        ReflectionTestUtils.setField(keyRing, "algorithmName", algorithm);
+        ReflectionTestUtils.setField(keyRing, "expiration", EXPIRATION_MS);
+        ReflectionTestUtils.setField(keyRing, "clockSkew", 60_000L);
+        ReflectionTestUtils.invokeMethod(keyRing, "init");
+
+        jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "secret", "YmVuY2htYXJrLXNlY3JldC1mb3ItZ3JvY2VyaWVzLWp3dC1wcm9qZWN0LWptaA==");
+        ReflectionTestUtils.setField(jwtUtil, "expiration", EXPIRATION_MS);
+        ReflectionTestUtils.setField(jwtUtil, "keyRing", keyRing);
+        ReflectionTestUtils.invokeMethod(jwtUtil, "initKey");
+
+        authentication = new UsernamePasswordAuthenticationToken("aditya", null,
+                List.of(new SimpleGrantedAuthority("ROLE_USER")));
+        token = jwtUtil.generateToken(authentication);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtUtil.generateToken(authentication);
+    }
+
+    @Benchmark
+    public String extractUsername() {
+        return jwtUtil.extractUsername(token);
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.groceries_jwt_project.benchmark;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.example.groceries_jwt_project.ResponseFormatConfig;
+import com.example.groceries_jwt_project.entity.Groceries;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
+/**
+ * Response serialization for GET /api/groceries/{id}: one product as JSON, CBOR, Smile and
+ * ?fields=id,name,price. No gzip variant: a single product is below server.compression.min-response-size.
+ * The list responses are in JsonSerializationBenchmark.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProductSerializationBenchmark {
+
+    private ObjectMapper objectMapper;
+    private ObjectMapper cborMapper;
+    private ObjectMapper smileMapper;
+    private ObjectWriter sparseWriter;
+    private Groceries product;
+
+    @Setup
+    public void setUp() {
+        SimpleFilterProvider allFields = new SimpleFilterProvider()
+                .addFilter(ResponseFormatConfig.FIELDS_FILTER, SimpleBeanPropertyFilter.serializeAll());
+        objectMapper = Jackson2ObjectMapperBuilder.json().filters(allFields).build();
+        cborMapper = Jackson2ObjectMapperBuilder.json().filters(allFields).factory(new CBORFactory()).build();
+        smileMapper = Jackson2ObjectMapperBuilder.json().filters(allFields).factory(new SmileFactory()).build();
+        sparseWriter = objectMapper.writer(new SimpleFilterProvider().addFilter(ResponseFormatConfig.FIELDS_FILTER,
+                SimpleBeanPropertyFilter.filterOutAllExcept(Set.of("id", "name", "price"))));
+
+        LocalDateTime now = LocalDateTime.now();
+        product = new Groceries(42L, "product-42", "Fresh product number 42 from the local farm", 43.5, 52, now, now);
+    }
+
+    @Benchmark
+    public byte[] serializeProduct() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(product);
+    }
+
+    @Benchmark
+    public byte[] serializeProductCbor() throws JsonProcessingException {
+        return cborMapper.writeValueAsBytes(product);
+    }
+
+    @Benchmark
+    public byte[] serializeProductSmile() throws JsonProcessingException {
+        return smileMapper.writeValueAsBytes(product);
+    }
+
+    @Benchmark
+    public byte[] serializeProductSparse() throws JsonProcessingException {
+        return sparseWriter.writeValueAsBytes(product);
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.groceries_jwt_project;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * CacheConfig: in-process Caffeine caches.
+ *
+ * ✅ "groceries": single products by id (GroceriesService.findById), preloaded by the warm-up
+ * ✅ Cache names are fixed up front, so Boot binds cache.gets{result=hit|miss} etc. at startup
+ * ✅ Transaction-aware: evictions made inside a transaction (stock decrements, updates) only
+ *    happen after commit, so a concurrent reader cannot re-cache the pre-commit row
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+	public static final String GROCERIES = "groceries";
+
+	@Bean
+	public CacheManager cacheManager(@Value("${app.cache.groceries.spec:maximumSize=10000,expireAfterWrite=10m,recordStats}") String spec) {
+		CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+		cacheManager.setCacheSpecification(spec);
+		cacheManager.setCacheNames(List.of(GROCERIES));
+		cacheManager.setAllowNullValues(false);
+		return new TransactionAwareCacheManagerProxy(cacheManager);
+	}
+}
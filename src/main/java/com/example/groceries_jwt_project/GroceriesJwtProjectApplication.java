@@ -2,8 +2,10 @@ package com.example.groceries_jwt_project;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class GroceriesJwtProjectApplication {
 
 	public static void main(String[] args) {
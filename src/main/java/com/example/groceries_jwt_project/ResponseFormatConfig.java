@@ -0,0 +1,59 @@
+package com.example.groceries_jwt_project;
+
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.web.filter.ShallowEtagHeaderFilter;
+
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
+/**
+ * ResponseFormatConfig: what the API can answer with, besides plain JSON.
+ *
+ * ✅ Content negotiation: Accept: application/cbor or application/x-jackson-smile gets the same
+ *    document in a binary encoding (no quoted field names, binary numbers)
+ * ✅ Both binary mappers come from Boot's builder, so they carry the same settings as the JSON one
+ *    (java.time support, dates as ISO strings, ...)
+ * ✅ Sparse fieldsets (?fields=...) use the "fields" @JsonFilter; without the parameter every
+ *    property is written (see SparseFieldsAdvice)
+ * ✅ gzip above a size threshold is Tomcat's job: server.compression.* in the properties.
+ *    Tomcat can only apply min-response-size when it knows the length, so catalog responses are
+ *    buffered by ShallowEtagHeaderFilter (Content-Length + ETag, 304 on If-None-Match)
+ */
+@Configuration
+public class ResponseFormatConfig {
+
+	public static final String FIELDS_FILTER = "fields";
+
+	@Bean
+	public Jackson2ObjectMapperBuilderCustomizer allFieldsByDefault() {
+		return builder -> builder.filters(new SimpleFilterProvider()
+				.addFilter(FIELDS_FILTER, SimpleBeanPropertyFilter.serializeAll()));
+	}
+
+	@Bean
+	public FilterRegistrationBean<ShallowEtagHeaderFilter> catalogEtagFilter() {
+		ShallowEtagHeaderFilter filter = new ShallowEtagHeaderFilter();
+		filter.setWriteWeakETag(true); // Tomcat refuses to gzip a response that has a strong ETag
+		FilterRegistrationBean<ShallowEtagHeaderFilter> registration = new FilterRegistrationBean<>(filter);
+		registration.addUrlPatterns("/api/groceries", "/api/groceries/*");
+		return registration;
+	}
+
+	@Bean
+	public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+		return new MappingJackson2CborHttpMessageConverter(builder.createXmlMapper(false).factory(new CBORFactory()).build());
+	}
+
+	@Bean
+	public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+		return new MappingJackson2SmileHttpMessageConverter(builder.createXmlMapper(false).factory(new SmileFactory()).build());
+	}
+}
@@ -0,0 +1,11 @@
+package com.example.groceries_jwt_project.audit;
+
+/** What an audit row records. Stored by name in audit_log.action (VARCHAR(32)). */
+public enum AuditAction {
+    LOGIN,
+    REGISTER,
+    USERS_PROVISIONED,
+    PRODUCT_CREATED,
+    PRODUCT_UPDATED,
+    PRODUCT_DELETED
+}
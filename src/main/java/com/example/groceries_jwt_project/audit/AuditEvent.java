@@ -0,0 +1,34 @@
+package com.example.groceries_jwt_project.audit;
+
+import java.time.Instant;
+
+/**
+ * One audit row: who did what to which target, when, and whether it worked.
+ * Never put secrets (passwords, tokens) into detail.
+ * Texts are cut to their audit_log column widths: actor and target can come straight from a request
+ * (a failed login's username), and one overlong value would fail the multi-row INSERT for its whole batch.
+ */
+public record AuditEvent(Instant occurredAt, AuditAction action, String actor, String target,
+                         boolean success, String detail) {
+
+    static final int MAX_NAME_LENGTH = 255;    // actor, target: VARCHAR(255)
+    static final int MAX_DETAIL_LENGTH = 1000; // detail: VARCHAR(1000)
+
+    public AuditEvent {
+        actor = truncate(actor, MAX_NAME_LENGTH);
+        target = truncate(target, MAX_NAME_LENGTH);
+        detail = truncate(detail, MAX_DETAIL_LENGTH);
+    }
+
+    public static AuditEvent success(AuditAction action, String actor, String target) {
+        return new AuditEvent(Instant.now(), action, actor, target, true, null);
+    }
+
+    public static AuditEvent failure(AuditAction action, String actor, String target, String detail) {
+        return new AuditEvent(Instant.now(), action, actor, target, false, detail);
+    }
+
+    private static String truncate(String value, int maxLength) {
+        return value != null && value.length() > maxLength ? value.substring(0, maxLength) : value;
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.groceries_jwt_project.audit;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * audit_log (V2 migration) through plain JDBC: the writer needs multi-row INSERTs,
+ * the admin query needs optional filters; neither benefits from JPA.
+ */
+@Repository
+@RequiredArgsConstructor
+public class AuditLogRepository {
+
+    private static final String INSERT = "INSERT INTO audit_log (occurred_at, action, actor, target, success, detail) VALUES ";
+    private static final String ROW = "(?, ?, ?, ?, ?, ?)";
+
+    private static final RowMapper<AuditEvent> MAPPER = (rs, rowNum) -> new AuditEvent(
+            rs.getTimestamp("occurred_at").toInstant(),
+            AuditAction.valueOf(rs.getString("action")),
+            rs.getString("actor"),
+            rs.getString("target"),
+            rs.getBoolean("success"),
+            rs.getString("detail"));
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /** One statement, one round trip: INSERT ... VALUES (...), (...), ... */
+    public void insertBatch(List<AuditEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        StringBuilder sql = new StringBuilder(INSERT.length() + events.size() * (ROW.length() + 2)).append(INSERT);
+        Object[] args = new Object[events.size() * 6];
+        int i = 0;
+        for (AuditEvent event : events) {
+            sql.append(i == 0 ? ROW : ", " + ROW);
+            args[i++] = Timestamp.from(event.occurredAt());
+            args[i++] = event.action().name();
+            args[i++] = event.actor();
+            args[i++] = event.target();
+            args[i++] = event.success();
+            args[i++] = event.detail();
+        }
+        jdbcTemplate.update(sql.toString(), args);
+    }
+
+    /** Newest first; every filter is optional. */
+    public List<AuditEvent> find(AuditAction action, String actor, Instant from, Instant to, int limit) {
+        StringBuilder sql = new StringBuilder(
+                "SELECT occurred_at, action, actor, target, success, detail FROM audit_log WHERE 1 = 1");
+        List<Object> args = new ArrayList<>();
+        if (action != null) {
+            sql.append(" AND action = ?");
+            args.add(action.name());
+        }
+        if (actor != null) {
+            sql.append(" AND actor = ?");
+            args.add(actor);
+        }
+        if (from != null) {
+            sql.append(" AND occurred_at >= ?");
+            args.add(Timestamp.from(from));
+        }
+        if (to != null) {
+            sql.append(" AND occurred_at < ?");
+            args.add(Timestamp.from(to));
+        }
+        sql.append(" ORDER BY occurred_at DESC, id DESC LIMIT ?");
+        args.add(limit);
+        return jdbcTemplate.query(sql.toString(), MAPPER, args.toArray());
+    }
+}
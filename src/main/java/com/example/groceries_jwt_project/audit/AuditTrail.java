@@ -0,0 +1,343 @@
+package com.example.groceries_jwt_project.audit;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.example.groceries_jwt_project.logging.LogRateLimiter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Asynchronous audit trail.
+ *
+ *  - publish() only enqueues into a bounded lock-free queue; request threads never touch the database.
+ *    Inside a transaction the event is enqueued after commit (a rolled-back change is not audited).
+ *  - One background "audit-writer" thread drains up to app.audit.batch-size events at a time and
+ *    writes them with a single multi-row INSERT, at most app.audit.flush-interval-ms after they arrive.
+ *  - When the queue is full, app.audit.overflow decides:
+ *      block - wait up to app.audit.block-timeout-ms for room, then drop
+ *      drop  - drop at once (audit.events.dropped{reason=overflow})
+ *      spill - append the event as a JSON line to app.audit.spill-file; the writer loads the file
+ *              back into audit_log once it has caught up (also done at startup)
+ *  - A batch that cannot be written (database unreachable) is spilled too (or dropped if the policy is not spill).
+ *    A batch the database refuses because of its data is retried row by row: only the offending
+ *    event is lost (audit.events.dropped{reason=rejected}), and it is never spilled to fail again on replay.
+ *  - The spill file is guarded by a ReentrantLock rather than synchronized: in spill mode request threads
+ *    append to it, and file I/O inside synchronized would pin them in virtual-thread mode.
+ */
+@Component
+public class AuditTrail {
+
+    private static final Logger log = LoggerFactory.getLogger(AuditTrail.class);
+
+    public enum Overflow { BLOCK, DROP, SPILL }
+
+    private final AuditLogRepository repository;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final LogRateLimiter failureLogLimiter = new LogRateLimiter(1);
+    private final ReentrantLock spillLock = new ReentrantLock();
+
+    @Value("${app.audit.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${app.audit.batch-size:500}")
+    private int batchSize;
+
+    @Value("${app.audit.flush-interval-ms:200}")
+    private long flushIntervalMs;
+
+    @Value("${app.audit.overflow:drop}")
+    private Overflow overflow;
+
+    @Value("${app.audit.block-timeout-ms:50}")
+    private long blockTimeoutMs;
+
+    @Value("${app.audit.spill-file:audit/spill.jsonl}")
+    private Path spillFile;
+
+    private BoundedQueue<AuditEvent> queue;
+    private Thread writer;
+    private volatile boolean running;
+    private volatile boolean spilled;
+    private BufferedWriter spillWriter;
+
+    private Counter written;
+    private Counter spilledEvents;
+    private Map<String, Counter> droppedEvents; // by reason
+    private Timer batchTimer;
+
+    public AuditTrail(AuditLogRepository repository, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.repository = repository;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    void start() {
+        queue = new BoundedQueue<>(queueCapacity);
+        Gauge.builder("audit.queue.size", queue, BoundedQueue::size)
+                .description("Audit events waiting for the writer")
+                .register(meterRegistry);
+        written = Counter.builder("audit.events.written")
+                .description("Audit events stored in audit_log")
+                .register(meterRegistry);
+        spilledEvents = Counter.builder("audit.events.spilled")
+                .description("Audit events appended to the spill file")
+                .register(meterRegistry);
+        droppedEvents = Map.of(
+                "overflow", droppedCounter("overflow"),
+                "write_failure", droppedCounter("write_failure"),
+                "rejected", droppedCounter("rejected"));
+        batchTimer = Timer.builder("audit.batch.write")
+                .description("Time to write one multi-row audit batch")
+                .register(meterRegistry);
+        spilled = Files.exists(spillFile) || Files.exists(replayFile());
+
+        running = true;
+        writer = new Thread(this::runWriter, "audit-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        LockSupport.unpark(writer);
+        writer.join(TimeUnit.SECONDS.toMillis(10)); // the writer drains what is left before it exits
+        spillLock.lock();
+        try {
+            closeSpillWriter();
+        } finally {
+            spillLock.unlock();
+        }
+    }
+
+    /** Record an event without blocking on the database (see class comment for overflow). */
+    public void publish(AuditEvent event) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    enqueue(event);
+                }
+            });
+        } else {
+            enqueue(event);
+        }
+    }
+
+    private void enqueue(AuditEvent event) {
+        if (queue.offer(event)) {
+            return;
+        }
+        switch (overflow) {
+            case BLOCK -> {
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(blockTimeoutMs);
+                while (!queue.offer(event)) {
+                    if (System.nanoTime() >= deadline) {
+                        dropped("overflow", 1);
+                        return;
+                    }
+                    LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(100));
+                }
+            }
+            case DROP -> dropped("overflow", 1);
+            case SPILL -> spill(List.of(event), "overflow");
+        }
+    }
+
+    // -------------------------------
+    // WRITER THREAD
+    // -------------------------------
+    private void runWriter() {
+        List<AuditEvent> batch = new ArrayList<>(batchSize);
+        while (running || queue.size() > 0) {
+            // Let a batch build up unless one is already full (or we are shutting down)
+            if (running && queue.size() < batchSize) {
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(flushIntervalMs));
+            }
+            try {
+                if (queue.drainTo(batch, batchSize) > 0) {
+                    write(batch, true);
+                } else if (spilled && running) {
+                    replaySpill();
+                }
+            } catch (RuntimeException ex) {
+                // Never let the writer die: later events would pile up with nobody draining them
+                log.atError().setMessage("Audit writer error").setCause(ex).log();
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    // How many events of the batch are done with (stored, or rejected for good); the rest could not be written
+    private int write(List<AuditEvent> batch, boolean spillOnFailure) {
+        int done = 0;
+        try {
+            try {
+                insert(batch);
+                return batch.size();
+            } catch (DataIntegrityViolationException ex) {
+                // One bad row fails the whole multi-row INSERT: write them one by one, lose only the bad ones
+                for (AuditEvent event : batch) {
+                    try {
+                        insert(List.of(event));
+                    } catch (DataIntegrityViolationException rowEx) {
+                        dropped("rejected", 1);
+                        if (failureLogLimiter.tryAcquire() >= 0) {
+                            log.atWarn().setMessage("Audit event rejected by the database")
+                                    .addKeyValue("action", event.action()).addKeyValue("reason", rowEx.getMessage()).log();
+                        }
+                    }
+                    done++;
+                }
+                return done;
+            }
+        } catch (RuntimeException ex) {
+            List<AuditEvent> failed = batch.subList(done, batch.size());
+            if (failureLogLimiter.tryAcquire() >= 0) {
+                log.atWarn().setMessage("Audit batch could not be written")
+                        .addKeyValue("events", failed.size()).addKeyValue("reason", ex.getMessage()).log();
+            }
+            if (spillOnFailure && overflow == Overflow.SPILL) {
+                spill(failed, "write_failure");
+            } else if (spillOnFailure) {
+                dropped("write_failure", failed.size());
+            }
+            return done;
+        }
+    }
+
+    private void insert(List<AuditEvent> events) {
+        batchTimer.record(() -> repository.insertBatch(events));
+        written.increment(events.size());
+    }
+
+    // The spill file is moved aside first, so producers can keep appending to a fresh one meanwhile
+    private void replaySpill() {
+        Path replay = replayFile();
+        try {
+            spillLock.lock();
+            try {
+                if (!Files.exists(replay)) {
+                    if (!Files.exists(spillFile)) {
+                        spilled = false;
+                        return;
+                    }
+                    closeSpillWriter();
+                    Files.move(spillFile, replay, StandardCopyOption.REPLACE_EXISTING);
+                }
+                spilled = Files.exists(spillFile);
+            } finally {
+                spillLock.unlock();
+            }
+            List<String> lines = Files.readAllLines(replay, StandardCharsets.UTF_8);
+            for (int start = 0; start < lines.size(); start += batchSize) {
+                List<String> chunk = lines.subList(start, Math.min(start + batchSize, lines.size()));
+                List<AuditEvent> batch = new ArrayList<>(chunk.size());
+                for (String line : chunk) {
+                    batch.add(objectMapper.readValue(line, AuditEvent.class));
+                }
+                int done = write(batch, false);
+                if (done < batch.size()) {
+                    // Database still down: keep only what was not written, try again later
+                    Files.write(replay, lines.subList(start + done, lines.size()), StandardCharsets.UTF_8);
+                    spilled = true;
+                    return;
+                }
+            }
+            Files.delete(replay);
+            log.atInfo().setMessage("Spilled audit events loaded")
+                    .addKeyValue("file", spillFile).addKeyValue("events", lines.size()).log();
+        } catch (IOException ex) {
+            log.atWarn().setMessage("Audit spill file could not be replayed")
+                    .addKeyValue("file", replay).addKeyValue("reason", ex.getMessage()).log();
+        }
+    }
+
+    // -------------------------------
+    // SPILL FILE
+    // -------------------------------
+    private void spill(List<AuditEvent> events, String reason) {
+        spillLock.lock();
+        try {
+            if (spillWriter == null) {
+                Path parent = spillFile.toAbsolutePath().getParent();
+                if (parent != null) {
+                    Files.createDirectories(parent);
+                }
+                spillWriter = Files.newBufferedWriter(spillFile, StandardCharsets.UTF_8,
+                        StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            }
+            for (AuditEvent event : events) {
+                spillWriter.write(objectMapper.writeValueAsString(event));
+                spillWriter.newLine();
+            }
+            spillWriter.flush();
+            spilledEvents.increment(events.size());
+            spilled = true;
+        } catch (IOException ex) {
+            dropped(reason, events.size());
+            if (failureLogLimiter.tryAcquire() >= 0) {
+                log.atWarn().setMessage("Audit spill file not writable")
+                        .addKeyValue("file", spillFile).addKeyValue("reason", ex.getMessage()).log();
+            }
+        } finally {
+            spillLock.unlock();
+        }
+    }
+
+    private void closeSpillWriter() {
+        if (spillWriter != null) {
+            try {
+                spillWriter.close();
+            } catch (IOException ex) {
+                log.atWarn().setMessage("Audit spill file not closed cleanly").addKeyValue("reason", ex.getMessage()).log();
+            }
+            spillWriter = null;
+        }
+    }
+
+    private Path replayFile() {
+        return spillFile.resolveSibling(spillFile.getFileName() + ".replay");
+    }
+
+    private void dropped(String reason, int events) {
+        droppedEvents.get(reason).increment(events);
+    }
+
+    private Counter droppedCounter(String reason) {
+        return Counter.builder("audit.events.dropped")
+                .description("Audit events lost: queue full (overflow), database write failed (write_failure) "
+                        + "or row refused by the database (rejected)")
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.groceries_jwt_project.audit;
+
+import java.util.Collection;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bounded multi-producer queue without locks: a ConcurrentLinkedQueue (CAS-linked nodes)
+ * plus an atomic element count that is reserved before the insert.
+ * Producers never wait on a lock held by the consumer or by each other.
+ */
+final class BoundedQueue<T> {
+
+    private final ConcurrentLinkedQueue<T> items = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger size = new AtomicInteger();
+    private final int capacity;
+
+    BoundedQueue(int capacity) {
+        this.capacity = capacity;
+    }
+
+    /** Adds the item, or returns false right away when the queue is full. */
+    boolean offer(T item) {
+        if (size.incrementAndGet() > capacity) {
+            size.decrementAndGet();
+            return false;
+        }
+        items.offer(item);
+        return true;
+    }
+
+    /** Moves up to max items into sink (single consumer); returns how many. */
+    int drainTo(Collection<T> sink, int max) {
+        int drained = 0;
+        T item;
+        while (drained < max && (item = items.poll()) != null) {
+            sink.add(item);
+            drained++;
+        }
+        size.addAndGet(-drained);
+        return drained;
+    }
+
+    int size() {
+        return size.get();
+    }
+
+    int capacity() {
+        return capacity;
+    }
+}
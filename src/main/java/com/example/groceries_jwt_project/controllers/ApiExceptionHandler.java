@@ -0,0 +1,64 @@
+package com.example.groceries_jwt_project.controllers;
+
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ProblemDetail;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseEntityExceptionHandler;
+
+import com.example.groceries_jwt_project.exception.InsufficientStockException;
+import com.example.groceries_jwt_project.exception.InvalidRequestException;
+import com.example.groceries_jwt_project.exception.NotFoundException;
+import com.example.groceries_jwt_project.exception.ProvisioningAbortedException;
+
+/**
+ * One place that turns expected outcomes into RFC 9457 problem details
+ * ({"type","title","status","detail","instance"}), in whatever format the client accepts.
+ *  - NotFoundException           → 404
+ *  - InsufficientStockException  → 409 (+ productId)
+ *  - ConcurrencyFailureException → 409 (cart already checked out, optimistic retries exhausted)
+ *  - InvalidRequestException     → 400 (a streamed body that cannot be processed)
+ *  - ProvisioningAbortedException → 400 (+ report of the users handled before the request stopped)
+ *  - Spring MVC's own errors (bad parameters, unsupported media type, ...) → their usual status,
+ *    as problem details too (inherited from ResponseEntityExceptionHandler)
+ * Anything else is deliberately not handled here: it stays a 500 with its full stack trace in the log.
+ */
+@RestControllerAdvice
+public class ApiExceptionHandler extends ResponseEntityExceptionHandler {
+
+    @ExceptionHandler(NotFoundException.class)
+    public ProblemDetail notFound(NotFoundException ex) {
+        return problem(HttpStatus.NOT_FOUND, "Not found", ex.getMessage());
+    }
+
+    @ExceptionHandler(InsufficientStockException.class)
+    public ProblemDetail insufficientStock(InsufficientStockException ex) {
+        ProblemDetail problem = problem(HttpStatus.CONFLICT, "Insufficient stock", ex.getMessage());
+        problem.setProperty("productId", ex.getProductId());
+        return problem;
+    }
+
+    @ExceptionHandler(ConcurrencyFailureException.class)
+    public ProblemDetail concurrencyFailure(ConcurrencyFailureException ex) {
+        return problem(HttpStatus.CONFLICT, "Concurrent update", ex.getMessage());
+    }
+
+    @ExceptionHandler(InvalidRequestException.class)
+    public ProblemDetail invalidRequest(InvalidRequestException ex) {
+        return problem(HttpStatus.BAD_REQUEST, "Invalid request", ex.getMessage());
+    }
+
+    @ExceptionHandler(ProvisioningAbortedException.class)
+    public ProblemDetail provisioningAborted(ProvisioningAbortedException ex) {
+        ProblemDetail problem = invalidRequest(ex);
+        problem.setProperty("report", ex.getReport());
+        return problem;
+    }
+
+    private static ProblemDetail problem(HttpStatus status, String title, String detail) {
+        ProblemDetail problem = ProblemDetail.forStatusAndDetail(status, detail);
+        problem.setTitle(title);
+        return problem;
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.groceries_jwt_project.controllers;
+
+import java.time.Instant;
+import java.util.List;
+
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.example.groceries_jwt_project.audit.AuditAction;
+import com.example.groceries_jwt_project.audit.AuditEvent;
+import com.example.groceries_jwt_project.audit.AuditLogRepository;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+
+@RestController
+@RequestMapping("/api/admin/audit")
+@RequiredArgsConstructor
+@Tag(name = "Audit", description = "Logins, registrations and catalog changes (ADMIN only)")
+public class AuditController {
+
+    private static final int MAX_LIMIT = 1000;
+
+    private final AuditLogRepository auditLogRepository;
+
+    @Operation(summary = "Query the audit trail (ADMIN only)",
+            description = "Newest first. Events are written asynchronously, so the last few hundred ms may be missing.",
+            security = @SecurityRequirement(name = "bearerAuth"))
+    @GetMapping
+    public ResponseEntity<List<AuditEvent>> find(
+            @RequestParam(required = false) AuditAction action,
+            @RequestParam(required = false) String actor,
+            @Parameter(example = "2025-01-01T00:00:00Z")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to,
+            @RequestParam(defaultValue = "100") int limit) {
+        int capped = Math.max(1, Math.min(limit, MAX_LIMIT));
+        return ResponseEntity.ok(auditLogRepository.find(action, actor, from, to, capped));
+    }
+}
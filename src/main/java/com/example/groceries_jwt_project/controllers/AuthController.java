@@ -1,6 +1,9 @@
 // Package declaration: groups this class under your project's controller layer
 package com.example.groceries_jwt_project.controllers;
 
+// Import: Date -> Instant conversion for the token expiry
+import java.time.Instant;
+
 // Import: Spring's dependency injection annotation
 import org.springframework.beans.factory.annotation.Autowired;
 // Import: HTTP response wrapper utility (status + body)
@@ -17,15 +20,23 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.bind.annotation.PostMapping;
 // Import: Bind request JSON to a Java object
 import org.springframework.web.bind.annotation.RequestBody;
+// Import: Bind an HTTP header to a method parameter
+import org.springframework.web.bind.annotation.RequestHeader;
 // Import: Declares a base URL path for this controller
 import org.springframework.web.bind.annotation.RequestMapping;
 // Import: Marks class as REST controller (@ResponseBody by default)
 import org.springframework.web.bind.annotation.RestController;
 
+import com.example.groceries_jwt_project.audit.AuditAction;
+import com.example.groceries_jwt_project.audit.AuditEvent;
+import com.example.groceries_jwt_project.audit.AuditTrail;
 import com.example.groceries_jwt_project.entity.Groceries;
 import com.example.groceries_jwt_project.entity.User;
 import com.example.groceries_jwt_project.repository.UserRepository;
 import com.example.groceries_jwt_project.security.JwtUtil;
+import com.example.groceries_jwt_project.security.TokenRevocationService;
+
+import io.jsonwebtoken.Claims;
 
 // =====================
 // SWAGGER / OPENAPI IMPORTS
@@ -42,7 +53,8 @@ import io.swagger.v3.oas.annotations.tags.Tag; // Groups related endpoints under
  * Handles user registration and login to issue JWT token. Teaching notes: -
  * /auth/register is PUBLIC (no token) -> creates user with hashed password. -
  * /auth/login is PUBLIC (no token) -> returns JWT if credentials are valid. -
- * The returned JWT is then sent by the client in Authorization: Bearer <token>.
+ * The returned JWT is then sent by the client in Authorization: Bearer <token>. -
+ * /auth/logout revokes the presented token so it stops working before expiry.
  */
 @RestController // Tells Spring this class exposes REST endpoints (JSON)
 @RequestMapping("/auth") // Base path for all endpoints in this controller
@@ -66,6 +78,12 @@ public class AuthController {
 	@Autowired // Injects JwtUtil to generate signed tokens
 	private JwtUtil jwtUtil;
 
+	@Autowired // Injects the revocation store used by /auth/logout
+	private TokenRevocationService revocationService;
+
+	@Autowired // Records logins/registrations asynchronously (no DB write on this thread)
+	private AuditTrail auditTrail;
+
 	// -------------------------------
 	// USER REGISTRATION
 	// -------------------------------
@@ -100,6 +118,8 @@ public class AuthController {
 		// Check if username already exists to prevent duplicates
 		if (repo.existsByUsername(user.getUsername())) {
 			// 400 Bad Request with simple message if taken
+			auditTrail.publish(AuditEvent.failure(AuditAction.REGISTER, user.getUsername(), user.getUsername(),
+					"User already exists"));
 			return ResponseEntity.badRequest().body("User already exists");
 		}
 
@@ -113,6 +133,7 @@ public class AuthController {
 
 		// Persist the new user (username unique constraint recommended)
 		repo.save(user);
+		auditTrail.publish(AuditEvent.success(AuditAction.REGISTER, user.getUsername(), user.getUsername()));
 		// 200 OK with confirmation message
 		return ResponseEntity.ok("User registered successfully");
 	}
@@ -155,12 +176,54 @@ public class AuthController {
 
 			// If authentication succeeds, build a JWT for this principal
 			String token = jwtUtil.generateToken(authentication);
+			auditTrail.publish(AuditEvent.success(AuditAction.LOGIN, authentication.getName(), authentication.getName()));
 
 			// 200 OK with the token string (frontends often prefer a JSON wrapper)
 			return ResponseEntity.ok(token);
 		} catch (Exception e) {
 			// If authentication fails (bad credentials, disabled user, etc.), return 401
+			auditTrail.publish(AuditEvent.failure(AuditAction.LOGIN, loginRequest.getUsername(),
+					loginRequest.getUsername(), e.getClass().getSimpleName()));
 			return ResponseEntity.status(401).body("Invalid username or password");
 		}
 	}
+
+	// -------------------------------
+	// USER LOGOUT (TOKEN REVOCATION)
+	// -------------------------------
+	@PostMapping("/logout") // Maps POST /auth/logout
+
+	// =====================
+	// @Operation: Describes logout endpoint
+	// - The token itself is the input, sent the usual way in the Authorization header
+	// =====================
+	@Operation(summary = "Revoke the current JWT", description = "Revokes the Bearer token sent in the Authorization header. "
+			+ "The token is rejected on every later request until its original expiry.", responses = {
+			@ApiResponse(responseCode = "200", description = "Token revoked"),
+			@ApiResponse(responseCode = "400", description = "Token has no id (issued before revocation existed) and cannot be revoked"),
+			@ApiResponse(responseCode = "401", description = "Missing, invalid or expired token") })
+	public ResponseEntity<?> logout(
+			@Parameter(description = "Bearer token to revoke", example = "Bearer eyJhbGciOiJIUzI1NiJ9...")
+			@RequestHeader(value = "Authorization", required = false) String authHeader) {
+		if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+			return ResponseEntity.status(401).body("Missing Bearer token");
+		}
+		try {
+			// Verify first: only tokens we issued (and that are still valid) can be revoked
+			Claims claims = jwtUtil.parseClaims(authHeader.substring(7));
+
+			// Tokens issued before revocation existed carry no "jti": nothing identifies them to revoke,
+			// so say so instead of answering "Logged out" for a token that keeps working
+			if (claims.getId() == null) {
+				return ResponseEntity.badRequest().body("This token has no id and cannot be revoked; it stays valid until "
+						+ claims.getExpiration().toInstant() + ". Log in again to get a revocable token.");
+			}
+
+			// Remember its id until it would have expired anyway
+			revocationService.revoke(claims.getId(), claims.getExpiration().toInstant());
+			return ResponseEntity.ok("Logged out");
+		} catch (Exception e) {
+			return ResponseEntity.status(401).body("Invalid or expired token");
+		}
+	}
 }
@@ -31,7 +31,8 @@ public class CartController {
 
 	@Operation(summary = "Add item to cart", description = "Adds a product to the user's cart")
 	@ApiResponses({
-			@ApiResponse(responseCode = "200", description = "Item added", content = @Content(schema = @Schema(implementation = Cart.class))) })
+			@ApiResponse(responseCode = "200", description = "Item added", content = @Content(schema = @Schema(implementation = Cart.class))),
+			@ApiResponse(responseCode = "404", description = "Product not found (problem detail)") })
 
 	@PostMapping("/add")
 	public ResponseEntity<String> addToCart(@RequestParam Long productId, @RequestParam int quantity) {
@@ -49,6 +50,9 @@ public class CartController {
 	}
 
 	@Operation(summary = "Remove item from cart", description = "Removes an item from the cart")
+	@ApiResponses({
+			@ApiResponse(responseCode = "200", description = "Item removed"),
+			@ApiResponse(responseCode = "404", description = "Cart item not found (problem detail)") })
 	@DeleteMapping("/remove/{itemId}")
 	public ResponseEntity<String> removeItem(@PathVariable Long itemId) {
 		cartService.removeItem(itemId);
@@ -56,6 +60,10 @@ public class CartController {
 	}
 
 	@Operation(summary = "Checkout", description = "Completes the purchase and clears the cart")
+	@ApiResponses({
+			@ApiResponse(responseCode = "200", description = "Order placed"),
+			@ApiResponse(responseCode = "400", description = "Empty cart"),
+			@ApiResponse(responseCode = "409", description = "Insufficient stock, or the cart was checked out concurrently (problem detail)") })
 	@PostMapping("/checkout")
 	public ResponseEntity<String> checkout() {
 		boolean success = cartService.checkout();
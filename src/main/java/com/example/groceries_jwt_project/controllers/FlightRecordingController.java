@@ -0,0 +1,69 @@
+package com.example.groceries_jwt_project.controllers;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.example.groceries_jwt_project.jfr.FlightRecordingService;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+
+@RestController
+@RequestMapping("/api/admin/jfr")
+@RequiredArgsConstructor
+@Tag(name = "Flight Recorder", description = "Start/stop/dump a JFR recording (ADMIN only)")
+public class FlightRecordingController {
+
+    private final FlightRecordingService recordingService;
+
+    @Operation(summary = "Start a recording (ADMIN only)",
+            description = "settings: default | profile. thresholdMs overrides the domain event thresholds.",
+            security = @SecurityRequirement(name = "bearerAuth"))
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Started"),
+            @ApiResponse(responseCode = "409", description = "Already running")
+    })
+    @PostMapping("/start")
+    public ResponseEntity<String> start(@RequestParam(defaultValue = "default") String settings,
+                                        @RequestParam(required = false) Long thresholdMs) throws Exception {
+        if (!settings.equals("default") && !settings.equals("profile")) {
+            return ResponseEntity.badRequest().body("settings must be 'default' or 'profile'");
+        }
+        try {
+            return ResponseEntity.ok(recordingService.start(settings, thresholdMs));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+        }
+    }
+
+    @Operation(summary = "Dump the running recording (ADMIN only)",
+            description = "Writes a .jfr file on the server and returns its path",
+            security = @SecurityRequirement(name = "bearerAuth"))
+    @PostMapping("/dump")
+    public ResponseEntity<String> dump() throws Exception {
+        try {
+            return ResponseEntity.ok(recordingService.dump().toString());
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+        }
+    }
+
+    @Operation(summary = "Stop and dump the recording (ADMIN only)",
+            security = @SecurityRequirement(name = "bearerAuth"))
+    @PostMapping("/stop")
+    public ResponseEntity<String> stop() throws Exception {
+        try {
+            return ResponseEntity.ok(recordingService.stop().toString());
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+        }
+    }
+}
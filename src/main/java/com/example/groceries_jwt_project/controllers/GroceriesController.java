@@ -11,12 +11,17 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.example.groceries_jwt_project.entity.Groceries;
+import com.example.groceries_jwt_project.recommend.Recommendation;
+import com.example.groceries_jwt_project.recommend.RecommendationService;
 import com.example.groceries_jwt_project.service.GroceriesService;
 
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.enums.ParameterIn;
 import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.ExampleObject;
@@ -34,6 +39,7 @@ import lombok.RequiredArgsConstructor;
 public class GroceriesController {
 
     private final GroceriesService groceriesService;
+    private final RecommendationService recommendationService;
 
     @Operation(summary = "Create product (ADMIN only)",
             description = "Requires JWT with ROLE_ADMIN",
@@ -62,7 +68,10 @@ public class GroceriesController {
         return new ResponseEntity<>(groceriesService.save(product), HttpStatus.CREATED);
     }
 
-    @Operation(summary = "List products", description = "Public in this demo")
+    @Operation(summary = "List products", description = "Public in this demo. Also served as application/cbor "
+            + "or application/x-jackson-smile (Accept header); gzip with Accept-Encoding")
+    @Parameter(name = SparseFieldsAdvice.FIELDS_PARAM, in = ParameterIn.QUERY, example = "id,name,price",
+            description = "Only return these product properties")
     @ApiResponses(@ApiResponse(responseCode = "200", description = "OK",
             content = @Content(array = @ArraySchema(schema = @Schema(implementation = Groceries.class)))))
     @GetMapping
@@ -71,6 +80,8 @@ public class GroceriesController {
     }
 
     @Operation(summary = "Get product by id", description = "Public in this demo")
+    @Parameter(name = SparseFieldsAdvice.FIELDS_PARAM, in = ParameterIn.QUERY, example = "id,name,price",
+            description = "Only return these product properties")
     @ApiResponses({
             @ApiResponse(responseCode = "200", description = "OK",
                     content = @Content(schema = @Schema(implementation = Groceries.class))),
@@ -78,11 +89,18 @@ public class GroceriesController {
     })
     @GetMapping("/{id}")
     public ResponseEntity<Groceries> findProduct(@PathVariable Long id) {
-        try {
-            return ResponseEntity.ok(groceriesService.findById(id));
-        } catch (RuntimeException e) {
-            return ResponseEntity.notFound().build();
-        }
+        return ResponseEntity.ok(groceriesService.findById(id));
+    }
+
+    @Operation(summary = "Frequently bought together",
+            description = "Public in this demo. Products checked out together with this one, strongest first. "
+                    + "Learned from checkouts as they happen; an unknown product has none")
+    @ApiResponses(@ApiResponse(responseCode = "200", description = "OK",
+            content = @Content(array = @ArraySchema(schema = @Schema(implementation = Recommendation.class)))))
+    @GetMapping("/{id}/recommendations")
+    public ResponseEntity<List<Recommendation>> recommendations(@PathVariable Long id,
+                                                                @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(recommendationService.recommend(id, Math.max(1, Math.min(limit, 100))));
     }
 
     @Operation(summary = "Update product (ADMIN only)",
@@ -96,11 +114,7 @@ public class GroceriesController {
     @PutMapping("/{id}")
     public ResponseEntity<Groceries> updateProduct(@PathVariable Long id,
                                                    @RequestBody Groceries newProduct) {
-        try {
-            return ResponseEntity.ok(groceriesService.update(id, newProduct));
-        } catch (RuntimeException e) {
-            return ResponseEntity.notFound().build();
-        }
+        return ResponseEntity.ok(groceriesService.update(id, newProduct));
     }
 
     @Operation(summary = "Delete product (ADMIN only)",
@@ -112,11 +126,7 @@ public class GroceriesController {
     })
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteProduct(@PathVariable Long id) {
-        try {
-            groceriesService.delete(id);
-            return ResponseEntity.noContent().build();
-        } catch (RuntimeException e) {
-            return ResponseEntity.notFound().build();
-        }
+        groceriesService.delete(id);
+        return ResponseEntity.noContent().build();
     }
 }
\ No newline at end of file
@@ -0,0 +1,38 @@
+package com.example.groceries_jwt_project.controllers;
+
+import java.util.List;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.example.groceries_jwt_project.inventory.InventoryVelocityService;
+import com.example.groceries_jwt_project.inventory.StockForecast;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+
+@RestController
+@RequestMapping("/api/admin/inventory")
+@RequiredArgsConstructor
+@Tag(name = "Inventory", description = "Sales velocity and low-stock forecast (ADMIN only)")
+public class InventoryController {
+
+    private final InventoryVelocityService inventoryVelocityService;
+
+    @Operation(summary = "Low-stock forecast for the whole catalog (ADMIN only)",
+            description = "Soonest to run out first. Computed from in-memory sales rollups (last hour, day and week); "
+                    + "the database is not queried. Velocities restart from zero when the application restarts.",
+            security = @SecurityRequirement(name = "bearerAuth"))
+    @GetMapping("/forecast")
+    public ResponseEntity<List<StockForecast>> forecast(
+            @Parameter(description = "Only products that run out within this many days", example = "7")
+            @RequestParam(required = false) Double withinDays) {
+        return ResponseEntity.ok(inventoryVelocityService.forecast(withinDays));
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.groceries_jwt_project.controllers;
+
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.example.groceries_jwt_project.security.JwtKeyRing;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+
+@RestController
+@RequiredArgsConstructor
+@Tag(name = "JWKS", description = "Public keys for verifying tokens locally (ES256/EdDSA mode)")
+public class JwksController {
+
+    private final JwtKeyRing keyRing;
+
+    // Must stay below app.jwt.rotation.interval-ms so caches pick up the pre-published NEXT key in time
+    @Value("${app.jwt.jwks.max-age-seconds:300}")
+    private long maxAgeSeconds;
+
+    @Operation(summary = "JSON Web Key Set", description = "Public verification keys by kid. Empty in HS256 mode.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Key set"),
+            @ApiResponse(responseCode = "304", description = "Not Modified (If-None-Match matched the ETag)")
+    })
+    @GetMapping(value = "/.well-known/jwks.json", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<String> jwks(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        String etag = keyRing.getJwksEtag();
+        CacheControl cacheControl = CacheControl.maxAge(maxAgeSeconds, TimeUnit.SECONDS).cachePublic();
+        if (etag.equals(ifNoneMatch)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(cacheControl).build();
+        }
+        return ResponseEntity.ok().eTag(etag).cacheControl(cacheControl).body(keyRing.getJwksJson());
+    }
+}
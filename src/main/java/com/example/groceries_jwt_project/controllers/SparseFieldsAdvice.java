@@ -0,0 +1,47 @@
+package com.example.groceries_jwt_project.controllers;
+
+import java.util.Arrays;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.MappingJacksonValue;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.AbstractMappingJacksonResponseBodyAdvice;
+
+import com.example.groceries_jwt_project.ResponseFormatConfig;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+
+/**
+ * Sparse fieldsets for the catalog: GET /api/groceries?fields=id,name,price
+ * writes only those properties of each product (JSON, CBOR and Smile alike).
+ * Unknown names are ignored; without the parameter the full product is written.
+ */
+@ControllerAdvice(assignableTypes = GroceriesController.class)
+public class SparseFieldsAdvice extends AbstractMappingJacksonResponseBodyAdvice {
+
+	public static final String FIELDS_PARAM = "fields";
+
+	@Override
+	protected void beforeBodyWriteInternal(MappingJacksonValue bodyContainer, MediaType contentType,
+			MethodParameter returnType, ServerHttpRequest request, ServerHttpResponse response) {
+		if (!(request instanceof ServletServerHttpRequest servletRequest)) {
+			return;
+		}
+		String fields = servletRequest.getServletRequest().getParameter(FIELDS_PARAM);
+		if (fields == null || fields.isBlank()) {
+			return;
+		}
+		Set<String> names = Arrays.stream(fields.split(","))
+				.map(String::trim)
+				.filter(name -> !name.isEmpty())
+				.collect(Collectors.toSet());
+		bodyContainer.setFilters(new SimpleFilterProvider()
+				.addFilter(ResponseFormatConfig.FIELDS_FILTER, SimpleBeanPropertyFilter.filterOutAllExcept(names)));
+	}
+}
@@ -0,0 +1,60 @@
+package com.example.groceries_jwt_project.controllers;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.example.groceries_jwt_project.provisioning.NewUser;
+import com.example.groceries_jwt_project.provisioning.ProvisioningReport;
+import com.example.groceries_jwt_project.provisioning.UserProvisioningService;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.ExampleObject;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+
+@RestController
+@RequestMapping("/api/admin/users")
+@RequiredArgsConstructor
+@Tag(name = "User provisioning", description = "Bulk account creation for partner onboarding (ADMIN only)")
+public class UserProvisioningController {
+
+    private final UserProvisioningService userProvisioningService;
+
+    @Operation(summary = "Create many users at once (ADMIN only)",
+            description = "The body is streamed, not loaded whole. Every user gets a result: CREATED, DUPLICATE "
+                    + "(name already taken) or INVALID (with the reason). Passwords are hashed with BCrypt "
+                    + "in parallel; that hashing is what the elapsed time mostly consists of.",
+            security = @SecurityRequirement(name = "bearerAuth"))
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Report, one result per requested user",
+                    content = @Content(schema = @Schema(implementation = ProvisioningReport.class))),
+            @ApiResponse(responseCode = "400", description = "Not a JSON array of users, or too many users. "
+                    + "Users before the problem may already be created: see the problem detail's report")
+    })
+    @PostMapping(path = "/bulk", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<ProvisioningReport> provision(
+            @io.swagger.v3.oas.annotations.parameters.RequestBody(required = true,
+                    content = @Content(array = @ArraySchema(schema = @Schema(implementation = NewUser.class)),
+                            examples = @ExampleObject(value = """
+                            [
+                              {"username": "store42-anna", "password": "s3cret"},
+                              {"username": "store42-admin", "password": "s3cret", "role": "ROLE_ADMIN"}
+                            ]""")))
+            InputStream body,
+            Authentication authentication) throws IOException {
+        return ResponseEntity.ok(userProvisioningService.provision(body, authentication.getName()));
+    }
+}
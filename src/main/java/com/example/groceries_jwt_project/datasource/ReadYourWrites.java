@@ -0,0 +1,39 @@
+package com.example.groceries_jwt_project.datasource;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * Read-your-writes window for replica routing.
+ * After a user writes (e.g. adds to the cart), their read-only transactions go to the primary
+ * for app.datasource.read-your-writes-ms, long enough for the replicas to catch up.
+ * Entries expire on their own; other users keep reading from the replicas.
+ */
+@Component
+public class ReadYourWrites {
+
+    private final Cache<Long, Boolean> recentWriters;
+
+    public ReadYourWrites(@Value("${app.datasource.read-your-writes-ms:5000}") long windowMs,
+                          @Value("${app.datasource.read-your-writes-max-users:100000}") long maxUsers) {
+        this.recentWriters = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofMillis(windowMs))
+                .maximumSize(maxUsers)
+                .build();
+    }
+
+    /** The user just wrote: pin their reads to the primary for the window. */
+    public void recordWrite(Long userId) {
+        recentWriters.put(userId, Boolean.TRUE);
+    }
+
+    /** Whether the user wrote within the window. */
+    public boolean isSticky(Long userId) {
+        return userId != null && recentWriters.getIfPresent(userId) != null;
+    }
+}
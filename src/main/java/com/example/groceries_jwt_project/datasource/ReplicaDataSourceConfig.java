@@ -0,0 +1,76 @@
+package com.example.groceries_jwt_project.datasource;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Read replicas. Only active when app.datasource.replicas.urls is set; otherwise Boot's single
+ * spring.datasource pool is used as before.
+ *
+ * Bean layout:
+ *   dataSource (@Primary)      LazyConnectionDataSourceProxy: defers the real connection until the first statement
+ *   └ replicaRoutingDataSource  primary or a replica, see ReplicaRoutingDataSource
+ *     ├ primaryDataSource       spring.datasource.* + spring.datasource.hikari.* (Flyway, writes)
+ *     └ replica pools           app.datasource.replicas.* (same driver; credentials default to the primary's)
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.datasource.replicas.urls")
+public class ReplicaDataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(
+            HikariDataSource primaryDataSource,
+            DataSourceProperties properties,
+            ReadYourWrites readYourWrites,
+            MeterRegistry meterRegistry,
+            @Value("${app.datasource.replicas.urls}") List<String> urls,
+            @Value("${app.datasource.replicas.username:${spring.datasource.username:}}") String username,
+            @Value("${app.datasource.replicas.password:${spring.datasource.password:}}") String password,
+            @Value("${app.datasource.replicas.maximum-pool-size:10}") int maximumPoolSize,
+            @Value("${app.datasource.replicas.connection-timeout-ms:2000}") long connectionTimeoutMs,
+            @Value("${app.datasource.replicas.selection:round_robin}") ReplicaRoutingDataSource.Selection selection) {
+        List<HikariDataSource> replicas = new ArrayList<>();
+        for (int i = 0; i < urls.size(); i++) {
+            HikariDataSource replica = new HikariDataSource();
+            replica.setPoolName("replica-" + (i + 1));
+            replica.setDriverClassName(properties.determineDriverClassName());
+            replica.setJdbcUrl(urls.get(i).trim());
+            replica.setUsername(username);
+            replica.setPassword(password);
+            replica.setMaximumPoolSize(maximumPoolSize);
+            replica.setConnectionTimeout(connectionTimeoutMs);
+            replica.setReadOnly(true);
+            // A replica that is down at startup is simply out of rotation, not a boot failure
+            replica.setInitializationFailTimeout(-1);
+            replicas.add(replica);
+        }
+        return new ReplicaRoutingDataSource(primaryDataSource, replicas, selection, readYourWrites, meterRegistry);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+}
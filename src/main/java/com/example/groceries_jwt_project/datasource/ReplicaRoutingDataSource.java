@@ -0,0 +1,210 @@
+package com.example.groceries_jwt_project.datasource;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.example.groceries_jwt_project.security.MyUserDetails;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Routes each connection to the primary or to one of the read replicas:
+ *  - read-only transactions (@Transactional(readOnly = true)) → a healthy replica
+ *  - everything else, and the reads of a user inside their read-your-writes window → primary
+ *  - no healthy replica → primary (reads never fail because a replica is down)
+ *
+ * Replica choice (app.datasource.replicas.selection):
+ *  - round_robin (default): take turns
+ *  - least_loaded: fewest active + waiting connections in the replica's pool
+ *
+ * Health: every app.datasource.replicas.health-check-ms each replica must hand out a valid connection;
+ * a replica whose connection fails mid-traffic is dropped right away and re-added by the next good check.
+ * Routes are counted in app.datasource.route{target}, one counter per database built up front.
+ * Must sit behind a LazyConnectionDataSourceProxy, so the connection is only fetched once the
+ * transaction's read-only flag is known.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+
+    static final String PRIMARY = "primary";
+
+    public enum Selection { ROUND_ROBIN, LEAST_LOADED }
+
+    private final List<Replica> replicas;
+    private final ReadYourWrites readYourWrites;
+    private final Counter primaryRoutes;
+    private final AtomicInteger next = new AtomicInteger();
+    private volatile Selection selection;
+
+    public ReplicaRoutingDataSource(DataSource primary, List<HikariDataSource> replicaPools, Selection selection,
+                                    ReadYourWrites readYourWrites, MeterRegistry meterRegistry) {
+        this.replicas = replicaPools.stream()
+                .map(pool -> new Replica(pool, routeCounter(meterRegistry, pool.getPoolName())))
+                .toList();
+        this.selection = selection;
+        this.readYourWrites = readYourWrites;
+        this.primaryRoutes = routeCounter(meterRegistry, PRIMARY);
+
+        Map<Object, Object> targets = new HashMap<>();
+        for (Replica replica : replicas) {
+            targets.put(replica.name, replica.pool);
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        setLenientFallback(false);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        Replica replica = route();
+        if (replica == null) {
+            primaryRoutes.increment();
+            return null; // default target (primary)
+        }
+        replica.routes.increment();
+        return replica.name;
+    }
+
+    // A replica that fails to hand out a connection leaves the rotation at once; this read goes to the primary
+    @Override
+    public Connection getConnection() throws SQLException {
+        DataSource target = determineTargetDataSource();
+        try {
+            return target.getConnection();
+        } catch (SQLException ex) {
+            Replica replica = replicas.stream().filter(r -> r.pool == target).findFirst().orElse(null);
+            if (replica == null) {
+                throw ex;
+            }
+            replica.healthy = false;
+            log.atWarn().setMessage("Replica taken out of rotation")
+                    .addKeyValue("replica", replica.name).addKeyValue("reason", ex.getMessage()).log();
+            return getResolvedDefaultDataSource().getConnection();
+        }
+    }
+
+    // null → primary
+    private Replica route() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                || readYourWrites.isSticky(currentUserId())) {
+            return null;
+        }
+        return selection == Selection.LEAST_LOADED ? leastLoaded() : roundRobin();
+    }
+
+    private Replica roundRobin() {
+        int size = replicas.size();
+        int start = Math.floorMod(next.getAndIncrement(), size);
+        for (int i = 0; i < size; i++) {
+            Replica replica = replicas.get((start + i) % size);
+            if (replica.healthy) {
+                return replica;
+            }
+        }
+        return null;
+    }
+
+    private Replica leastLoaded() {
+        Replica best = null;
+        int bestLoad = Integer.MAX_VALUE;
+        for (Replica replica : replicas) {
+            int load = replica.load();
+            if (replica.healthy && load < bestLoad) {
+                best = replica;
+                bestLoad = load;
+            }
+        }
+        return best;
+    }
+
+    @Scheduled(fixedDelayString = "${app.datasource.replicas.health-check-ms:5000}",
+            initialDelayString = "${app.datasource.replicas.health-check-ms:5000}")
+    public void checkReplicas() {
+        for (Replica replica : replicas) {
+            boolean healthy = replica.probe();
+            if (healthy != replica.healthy) {
+                replica.healthy = healthy;
+                log.atWarn().setMessage(healthy ? "Replica back in rotation" : "Replica taken out of rotation")
+                        .addKeyValue("replica", replica.name).log();
+            }
+        }
+    }
+
+    public void setSelection(Selection selection) {
+        this.selection = selection;
+    }
+
+    /** Replica name → healthy, in configuration order. */
+    public Map<String, Boolean> getReplicaHealth() {
+        Map<String, Boolean> health = new LinkedHashMap<>();
+        for (Replica replica : replicas) {
+            health.put(replica.name, replica.healthy);
+        }
+        return health;
+    }
+
+    @Override
+    public void destroy() {
+        replicas.forEach(replica -> replica.pool.close());
+    }
+
+    private static Counter routeCounter(MeterRegistry meterRegistry, String target) {
+        return Counter.builder("app.datasource.route")
+                .description("Connections handed out, by target database")
+                .tag("target", target)
+                .register(meterRegistry);
+    }
+
+    private static Long currentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null && authentication.getPrincipal() instanceof MyUserDetails user
+                ? user.getId() : null;
+    }
+
+    private static final class Replica {
+        final String name;
+        final HikariDataSource pool;
+        final Counter routes;
+        volatile boolean healthy = true;
+
+        Replica(HikariDataSource pool, Counter routes) {
+            this.name = pool.getPoolName();
+            this.pool = pool;
+            this.routes = routes;
+        }
+
+        // Active + waiting connections; a pool that has not started yet counts as idle
+        int load() {
+            HikariPoolMXBean bean = pool.getHikariPoolMXBean();
+            return bean == null ? 0 : bean.getActiveConnections() + bean.getThreadsAwaitingConnection();
+        }
+
+        boolean probe() {
+            try (Connection connection = pool.getConnection()) {
+                return connection.isValid(1);
+            } catch (Exception ex) {
+                return false;
+            }
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.groceries_jwt_project.entity;
 
+import com.fasterxml.jackson.annotation.JsonFilter;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
@@ -13,6 +14,7 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
+@JsonFilter("fields") // ?fields=... sparse fieldsets, see SparseFieldsAdvice
 public class Groceries {
 
     @Id
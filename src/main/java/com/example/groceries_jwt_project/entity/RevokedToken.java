@@ -0,0 +1,21 @@
+package com.example.groceries_jwt_project.entity;
+
+import java.time.Instant;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+@Entity
+@Table(name = "revoked_tokens")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RevokedToken {
+
+    @Id
+    @Column(length = 64)
+    private String jti; // "jti" claim of the revoked token
+
+    @Column(nullable = false)
+    private Instant expiresAt; // row is useless after the token's own expiry
+}
@@ -0,0 +1,20 @@
+package com.example.groceries_jwt_project.exception;
+
+/**
+ * Base class for expected business outcomes (not found, out of stock, ...).
+ *
+ * These are part of normal traffic: crawlers hitting deleted ids, stock-out storms during a sale.
+ * The stack trace would only ever say "thrown from the service", so it is not captured
+ * (writableStackTrace = false): no fillInStackTrace walk and no StackTraceElement[] per throw.
+ * ApiExceptionHandler turns each subtype into a problem-detail response.
+ *
+ * Genuine failures (bugs, database errors) must keep using ordinary exceptions with full traces.
+ */
+public abstract class DomainException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    protected DomainException(String message) {
+        super(message, null, false, false);
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.groceries_jwt_project.exception;
+
+/** Not enough units left for a purchase; the checkout is rolled back. Mapped to 409. */
+public class InsufficientStockException extends DomainException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final Long productId;
+
+    public InsufficientStockException(Long productId, String product) {
+        super("Insufficient stock for product: " + product);
+        this.productId = productId;
+    }
+
+    public Long getProductId() {
+        return productId;
+    }
+}
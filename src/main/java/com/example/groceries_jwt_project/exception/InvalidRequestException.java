@@ -0,0 +1,11 @@
+package com.example.groceries_jwt_project.exception;
+
+/** The request body cannot be processed as sent (malformed or over a limit). Mapped to 400. */
+public class InvalidRequestException extends DomainException {
+
+    private static final long serialVersionUID = 1L;
+
+    public InvalidRequestException(String message) {
+        super(message);
+    }
+}
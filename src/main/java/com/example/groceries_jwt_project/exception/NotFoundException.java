@@ -0,0 +1,19 @@
+package com.example.groceries_jwt_project.exception;
+
+/** The requested product / cart line does not exist. Mapped to 404. */
+public class NotFoundException extends DomainException {
+
+    private static final long serialVersionUID = 1L;
+
+    public NotFoundException(String message) {
+        super(message);
+    }
+
+    public static NotFoundException product(Long id) {
+        return new NotFoundException("Grocery item not found with ID: " + id);
+    }
+
+    public static NotFoundException cartItem(Long id) {
+        return new NotFoundException("Cart item not found with ID: " + id);
+    }
+}
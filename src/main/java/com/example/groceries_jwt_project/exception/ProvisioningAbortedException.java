@@ -0,0 +1,23 @@
+package com.example.groceries_jwt_project.exception;
+
+import com.example.groceries_jwt_project.provisioning.ProvisioningReport;
+
+/**
+ * A bulk provisioning request stopped halfway (malformed body, too many users). Mapped to 400,
+ * with the report of what was done before: those chunks are committed, their accounts exist.
+ */
+public class ProvisioningAbortedException extends InvalidRequestException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final transient ProvisioningReport report;
+
+    public ProvisioningAbortedException(String message, ProvisioningReport report) {
+        super(message);
+        this.report = report;
+    }
+
+    public ProvisioningReport getReport() {
+        return report;
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.groceries_jwt_project.exception;
+
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+/**
+ * Unknown username in MyUserDetailsService. It has to stay a UsernameNotFoundException for
+ * Spring Security (login turns it into "bad credentials"), so instead of the DomainException
+ * constructor it skips the stack trace by overriding fillInStackTrace.
+ */
+public class UserNotFoundException extends UsernameNotFoundException {
+
+    private static final long serialVersionUID = 1L;
+
+    public UserNotFoundException(String message) {
+        super(message);
+    }
+
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return this; // expected outcome: no trace
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.groceries_jwt_project.inventory;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.example.groceries_jwt_project.repository.GroceriesRepository;
+import com.example.groceries_jwt_project.service.StockMovementEvent;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Inventory velocity ("what runs out this week?") without a sales history table:
+ *  - Stock levels are read at startup (one id/quantity scan), then kept current from StockMovementEvents:
+ *    sales from StockService, new levels from product create/update, removals from delete.
+ *  - Events only come from this instance, so the scan is repeated every app.inventory.stock-refresh-ms:
+ *    with several instances, stock is at most that old. Velocities are NOT corrected: each instance only
+ *    counts its own sales, so a multi-instance forecast under-reports units per day (and over-reports cover).
+ *  - Sales go into each product's minute/hour/day rollups (StockRollup). Only committed changes count.
+ *  - forecast() answers for the whole catalog from memory, in one pass, without touching the tables.
+ * Rollups live in memory only: after a restart velocities start again from zero.
+ */
+@Service
+public class InventoryVelocityService {
+
+    private static final Logger log = LoggerFactory.getLogger(InventoryVelocityService.class);
+
+    private static final int VELOCITY_DAYS = 7;
+    private static final double MIN_WINDOW_DAYS = 1.0 / 24; // a sale right after startup is not 1000 units/day
+
+    private final GroceriesRepository groceriesRepository;
+    private final Map<Long, StockRollup> rollups = new ConcurrentHashMap<>();
+
+    public InventoryVelocityService(GroceriesRepository groceriesRepository, MeterRegistry meterRegistry) {
+        this.groceriesRepository = groceriesRepository;
+        Gauge.builder("inventory.products.tracked", rollups, Map::size)
+                .description("Products with stock and velocity rollups in memory")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void seed() {
+        long now = System.currentTimeMillis();
+        for (GroceriesRepository.StockLevel level : groceriesRepository.findAllStockLevels()) {
+            rollups.putIfAbsent(level.getId(), new StockRollup(level.getQuantity(), now));
+        }
+        log.atInfo().setMessage("Inventory rollups seeded").addKeyValue("products", rollups.size()).log();
+    }
+
+    /**
+     * Re-read every stock level (one query) and replace the tracked ones, keeping the sales rollups;
+     * picks up changes made through other instances. A movement committed while the query runs can be
+     * overwritten by the older level until the next refresh.
+     */
+    @Scheduled(fixedDelayString = "${app.inventory.stock-refresh-ms:60000}",
+            initialDelayString = "${app.inventory.stock-refresh-ms:60000}")
+    public void refreshStockLevels() {
+        long now = System.currentTimeMillis();
+        Set<Long> present = new HashSet<>();
+        for (GroceriesRepository.StockLevel level : groceriesRepository.findAllStockLevels()) {
+            present.add(level.getId());
+            rollups.computeIfAbsent(level.getId(), id -> new StockRollup(level.getQuantity(), now))
+                    .setStock(level.getQuantity());
+        }
+        rollups.keySet().retainAll(present); // deleted elsewhere
+    }
+
+    // fallbackExecution: create and delete are not wrapped in a transaction of their own
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStockMovement(StockMovementEvent event) {
+        long now = System.currentTimeMillis();
+        switch (event.type()) {
+            case SOLD -> rollups.computeIfAbsent(event.productId(), id -> new StockRollup(0, now))
+                    .sold(event.quantity(), now);
+            case SET -> rollups.computeIfAbsent(event.productId(), id -> new StockRollup(event.quantity(), now))
+                    .setStock(event.quantity());
+            case REMOVED -> rollups.remove(event.productId());
+        }
+    }
+
+    /**
+     * Every tracked product, soonest to run out first (products that do not sell come last).
+     *
+     * @param withinDays only products whose cover is at most this many days; null for all
+     */
+    public List<StockForecast> forecast(Double withinDays) {
+        long now = System.currentTimeMillis();
+        List<StockForecast> forecasts = new ArrayList<>(rollups.size());
+        rollups.forEach((productId, rollup) -> {
+            StockForecast forecast = forecast(productId, rollup, now);
+            if (withinDays == null || (forecast.daysOfCover() != null && forecast.daysOfCover() <= withinDays)) {
+                forecasts.add(forecast);
+            }
+        });
+        forecasts.sort(Comparator.comparing(StockForecast::daysOfCover, Comparator.nullsLast(Comparator.naturalOrder()))
+                .thenComparingLong(StockForecast::productId));
+        return forecasts;
+    }
+
+    private static StockForecast forecast(long productId, StockRollup rollup, long now) {
+        int stock = Math.max(0, rollup.stock());
+        int sold7d = rollup.soldLastDays(VELOCITY_DAYS, now);
+        // Today's bucket is partial: the 7 day buckets cover 6 days plus today so far
+        double windowDays = VELOCITY_DAYS - 1 + (double) (now % StockRollup.DAY_MS) / StockRollup.DAY_MS;
+        double trackedDays = (double) (now - rollup.trackedSince()) / StockRollup.DAY_MS;
+        double days = Math.max(MIN_WINDOW_DAYS, Math.min(windowDays, trackedDays));
+        double unitsPerDay = sold7d / days;
+        Double daysOfCover = unitsPerDay > 0 ? stock / unitsPerDay : null;
+        double sellThrough = sold7d + stock > 0 ? (double) sold7d / (sold7d + stock) : 0;
+        return new StockForecast(productId, stock, rollup.soldLastHour(now), rollup.soldLast24Hours(now), sold7d,
+                unitsPerDay, daysOfCover, sellThrough);
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.groceries_jwt_project.inventory;
+
+/**
+ * Sell-through and cover for one product, from the in-memory rollups.
+ *
+ * @param unitsPerDay   average daily sales over the last 7 days (or since tracking started, if later)
+ * @param daysOfCover   stock / unitsPerDay: days until it runs out at that pace; null when nothing sells
+ * @param sellThrough7d sold / (sold + stock) over the last 7 days, 0..1
+ */
+public record StockForecast(long productId, int stock, int soldLastHour, int soldLast24Hours, int soldLast7Days,
+        double unitsPerDay, Double daysOfCover, double sellThrough7d) {
+}
@@ -0,0 +1,102 @@
+package com.example.groceries_jwt_project.inventory;
+
+import java.util.Arrays;
+
+/**
+ * StockRollup (one per product):
+ *  - Last known stock level, kept up to date from stock movements.
+ *  - Units sold in three ring buffers of fixed-width time buckets, all in ONE int[]:
+ *      60 minute buckets (last hour), 24 hour buckets (last day), 28 day buckets (last four weeks, UTC days).
+ *    Each sale is added to the current bucket of all three rings; no history is kept beyond them.
+ *  - A ring advances lazily: buckets skipped since the last write are zeroed when time is next passed in.
+ *  - Callers pass the time (epoch ms), which keeps the class free of clocks and easy to test.
+ */
+final class StockRollup {
+
+    static final long MINUTE_MS = 60_000L;
+    static final long HOUR_MS = 60 * MINUTE_MS;
+    static final long DAY_MS = 24 * HOUR_MS;
+
+    private static final int MINUTE = 0;
+    private static final int HOUR = 1;
+    private static final int DAY = 2;
+    private static final long[] WIDTH_MS = { MINUTE_MS, HOUR_MS, DAY_MS };
+    private static final int[] LENGTH = { 60, 24, 28 };
+    private static final int[] OFFSET = { 0, 60, 60 + 24 };
+
+    private final int[] slots = new int[60 + 24 + 28];
+    private final long[] heads = new long[3]; // bucket number (time / width) each ring was last advanced to
+    private final long trackedSince;
+    private int stock;
+
+    StockRollup(int stock, long nowMs) {
+        this.stock = stock;
+        this.trackedSince = nowMs;
+        for (int ring = 0; ring < heads.length; ring++) {
+            heads[ring] = nowMs / WIDTH_MS[ring];
+        }
+    }
+
+    synchronized void sold(int units, long nowMs) {
+        stock -= units;
+        for (int ring = 0; ring < heads.length; ring++) {
+            advance(ring, nowMs);
+            slots[index(ring, heads[ring])] += units;
+        }
+    }
+
+    synchronized void setStock(int quantity) {
+        stock = quantity;
+    }
+
+    synchronized int stock() {
+        return stock;
+    }
+
+    long trackedSince() {
+        return trackedSince;
+    }
+
+    synchronized int soldLastHour(long nowMs) {
+        return sum(MINUTE, LENGTH[MINUTE], nowMs);
+    }
+
+    synchronized int soldLast24Hours(long nowMs) {
+        return sum(HOUR, LENGTH[HOUR], nowMs);
+    }
+
+    /** Units sold today (so far) and on the days - 1 days before; days at most 28. */
+    synchronized int soldLastDays(int days, long nowMs) {
+        return sum(DAY, Math.min(days, LENGTH[DAY]), nowMs);
+    }
+
+    private int sum(int ring, int buckets, long nowMs) {
+        advance(ring, nowMs);
+        int total = 0;
+        for (int i = 0; i < buckets; i++) {
+            total += slots[index(ring, heads[ring] - i)];
+        }
+        return total;
+    }
+
+    // Zero the buckets between the last head and now: they saw no sales (or are stale from a previous lap)
+    private void advance(int ring, long nowMs) {
+        long bucket = nowMs / WIDTH_MS[ring];
+        long gap = bucket - heads[ring];
+        if (gap <= 0) {
+            return;
+        }
+        if (gap >= LENGTH[ring]) {
+            Arrays.fill(slots, OFFSET[ring], OFFSET[ring] + LENGTH[ring], 0);
+        } else {
+            for (long b = heads[ring] + 1; b <= bucket; b++) {
+                slots[index(ring, b)] = 0;
+            }
+        }
+        heads[ring] = bucket;
+    }
+
+    private static int index(int ring, long bucket) {
+        return OFFSET[ring] + Math.floorMod(bucket, LENGTH[ring]);
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.groceries_jwt_project.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/** A whole CartService.checkout call. */
+@Name("groceries.Checkout")
+@Label("Checkout")
+@Category({ "Groceries", "Cart" })
+@Description("Cart checkout from load to clear")
+@Threshold("20 ms")
+@StackTrace(false)
+public class CheckoutEvent extends Event {
+
+    @Label("User Id")
+    public long userId;
+
+    @Label("Cart Lines")
+    public int lines;
+
+    @Label("Success")
+    public boolean success;
+}
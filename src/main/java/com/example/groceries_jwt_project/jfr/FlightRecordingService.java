@@ -0,0 +1,141 @@
+package com.example.groceries_jwt_project.jfr;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.Configuration;
+import jdk.jfr.Event;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+
+/**
+ * Starts/stops/dumps one in-process JFR recording on behalf of the admin endpoint.
+ *  - Built-in "default" or "profile" settings (GC, locks, allocation, ...) plus our events.
+ *  - Dumps go to app.jfr.dump-dir with server-chosen file names only.
+ *  - Guarded by a ReentrantLock rather than synchronized: dumps do file I/O, which would
+ *    pin the carrier thread in virtual-thread mode.
+ */
+@Service
+public class FlightRecordingService {
+
+    private static final List<Class<? extends Event>> DOMAIN_EVENTS = List.of(
+            JwtVerifyEvent.class, UserLookupEvent.class, RepositoryCallEvent.class, CheckoutEvent.class);
+
+    private static final DateTimeFormatter FILE_TIME = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    @Value("${app.jfr.dump-dir:recordings}")
+    private String dumpDir;
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private Recording recording;
+
+    /**
+     * @param settings    "default" (low overhead) or "profile" (more detail)
+     * @param thresholdMs if set, overrides the per-event thresholds of our domain events
+     */
+    public String start(String settings, Long thresholdMs) throws IOException, ParseException {
+        lock.lock();
+        try {
+            return startLocked(settings, thresholdMs);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private String startLocked(String settings, Long thresholdMs) throws IOException, ParseException {
+        if (isRunning()) {
+            throw new IllegalStateException("A recording is already running");
+        }
+        Recording next = new Recording(Configuration.getConfiguration(settings));
+        next.setName("groceries-admin");
+        next.setToDisk(true);
+        next.setMaxAge(Duration.ofHours(1));
+        for (Class<? extends Event> type : DOMAIN_EVENTS) {
+            if (thresholdMs != null) {
+                next.enable(type).withThreshold(Duration.ofMillis(thresholdMs));
+            } else {
+                next.enable(type);
+            }
+        }
+        // Virtual threads (JDK 21+): pinned carrier threads; ignored on older JDKs
+        next.enable("jdk.VirtualThreadPinned").withThreshold(Duration.ofMillis(20)).withStackTrace();
+        next.start();
+        recording = next;
+        return "Recording started with '" + settings + "' settings";
+    }
+
+    /** Write everything recorded so far to a new file; the recording keeps running. */
+    public Path dump() throws IOException {
+        lock.lock();
+        try {
+            if (!isRunning()) {
+                throw new IllegalStateException("No recording is running");
+            }
+            return dumpTo(recording);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Dump, then stop and discard the recording. */
+    public Path stop() throws IOException {
+        lock.lock();
+        try {
+            if (!isRunning()) {
+                throw new IllegalStateException("No recording is running");
+            }
+            try {
+                recording.stop();
+                return dumpTo(recording);
+            } finally {
+                recording.close();
+                recording = null;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public boolean isRunning() {
+        lock.lock();
+        try {
+            return recording != null && recording.getState() == RecordingState.RUNNING;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @PreDestroy
+    void close() {
+        lock.lock();
+        try {
+            if (recording != null) {
+                recording.close();
+                recording = null;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Path dumpTo(Recording source) throws IOException {
+        Path dir = Paths.get(dumpDir);
+        Files.createDirectories(dir);
+        Path file = dir.resolve("groceries-" + LocalDateTime.now().format(FILE_TIME) + ".jfr").toAbsolutePath();
+        source.dump(file);
+        return file;
+    }
+}
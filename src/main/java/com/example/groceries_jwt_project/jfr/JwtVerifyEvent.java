@@ -0,0 +1,22 @@
+package com.example.groceries_jwt_project.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/** JWT signature check + revocation lookup done by JwtAuthFilter for one request. */
+@Name("groceries.JwtVerify")
+@Label("JWT Verify")
+@Category({ "Groceries", "Security" })
+@Description("Token verification in JwtAuthFilter")
+@Threshold("5 ms")
+@StackTrace(false)
+public class JwtVerifyEvent extends Event {
+
+    @Label("Outcome")
+    public String outcome; // VALID, EXPIRED, REVOKED, INVALID
+}
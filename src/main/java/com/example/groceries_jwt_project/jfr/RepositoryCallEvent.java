@@ -0,0 +1,29 @@
+package com.example.groceries_jwt_project.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Threshold;
+
+/** One Spring Data repository method call, with the entity type and rows returned/affected. */
+@Name("groceries.RepositoryCall")
+@Label("Repository Call")
+@Category({ "Groceries", "Persistence" })
+@Description("Spring Data repository invocation")
+@Threshold("10 ms")
+public class RepositoryCallEvent extends Event {
+
+    @Label("Repository")
+    public String repository;
+
+    @Label("Method")
+    public String method;
+
+    @Label("Entity Type")
+    public String entityType;
+
+    @Label("Row Count")
+    public long rowCount;
+}
@@ -0,0 +1,85 @@
+package com.example.groceries_jwt_project.jfr;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.aop.framework.AopProxyUtils;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.ResolvableType;
+import org.springframework.data.repository.Repository;
+import org.springframework.stereotype.Component;
+
+/**
+ * Emits a RepositoryCallEvent around every call into our Spring Data repositories.
+ *  - When no recording is running (or the call is under the threshold) shouldCommit()
+ *    is false and we never resolve names or count rows.
+ *  - Switch off entirely with app.jfr.repository-events=false.
+ */
+@Aspect
+@Component
+@ConditionalOnProperty(name = "app.jfr.repository-events", havingValue = "true", matchIfMissing = true)
+public class RepositoryJfrAspect {
+
+    // Repository interface → managed entity, resolved once per repository
+    private final Map<Class<?>, String> entityTypes = new ConcurrentHashMap<>();
+
+    @Around("execution(* com.example.groceries_jwt_project.repository.*+.*(..))")
+    public Object record(ProceedingJoinPoint joinPoint) throws Throwable {
+        RepositoryCallEvent event = new RepositoryCallEvent();
+        event.begin();
+        Object result = null;
+        try {
+            result = joinPoint.proceed();
+            return result;
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                Class<?> repository = repositoryInterface(joinPoint.getThis());
+                event.repository = repository.getSimpleName();
+                event.method = joinPoint.getSignature().getName();
+                event.entityType = entityTypes.computeIfAbsent(repository, RepositoryJfrAspect::entityType);
+                event.rowCount = rowCount(result);
+                event.commit();
+            }
+        }
+    }
+
+    private static Class<?> repositoryInterface(Object proxy) {
+        for (Class<?> type : AopProxyUtils.proxiedUserInterfaces(proxy)) {
+            if (Repository.class.isAssignableFrom(type)) {
+                return type;
+            }
+        }
+        return proxy.getClass();
+    }
+
+    private static String entityType(Class<?> repository) {
+        Class<?> entity = ResolvableType.forClass(repository).as(Repository.class).resolveGeneric(0);
+        return entity != null ? entity.getSimpleName() : "unknown";
+    }
+
+    // Rows returned (finders) or affected (modifying queries); 0 for void / not found
+    private static long rowCount(Object result) {
+        if (result == null) {
+            return 0;
+        }
+        if (result instanceof Collection<?> collection) {
+            return collection.size();
+        }
+        if (result instanceof Optional<?> optional) {
+            return optional.isPresent() ? 1 : 0;
+        }
+        if (result instanceof Number number) {
+            return number.longValue();
+        }
+        if (result instanceof Boolean exists) {
+            return exists ? 1 : 0;
+        }
+        return 1; // single entity
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.groceries_jwt_project.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/** One MyUserDetailsService.loadUserByUsername call (per request and per login). */
+@Name("groceries.UserLookup")
+@Label("User Lookup")
+@Category({ "Groceries", "Security" })
+@Description("User + roles loaded from the database")
+@Threshold("5 ms")
+@StackTrace(false)
+public class UserLookupEvent extends Event {
+
+    @Label("Found")
+    public boolean found;
+}
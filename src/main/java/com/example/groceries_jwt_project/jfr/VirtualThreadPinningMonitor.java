@@ -0,0 +1,122 @@
+package com.example.groceries_jwt_project.jfr;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.stereotype.Component;
+
+import com.example.groceries_jwt_project.logging.LogRateLimiter;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+
+/**
+ * Watches for virtual threads that pin their carrier (blocking inside synchronized or native code).
+ *  - Only exists in virtual-thread mode (spring.threads.virtual.enabled=true), and only starts on JDK 21+:
+ *    older JDKs have neither virtual threads nor jdk.VirtualThreadPinned (checked explicitly in start()).
+ *  - JDK 24+ no longer pins in synchronized blocks (JEP 491); what is left to report there is native code.
+ *  - Streams jdk.VirtualThreadPinned in-process; no recording file, no admin call needed.
+ *  - Each event is attributed to the first stack frame in our own packages ("site"),
+ *    counted as jvm.threads.virtual.pinned{site=...} and logged (rate-limited) with the frame.
+ *  - Pinning inside libraries only shows up as site="other"; use a JFR dump for those stacks.
+ */
+@Component
+@ConditionalOnThreading(Threading.VIRTUAL)
+@ConditionalOnProperty(name = "app.jfr.pinning-monitor.enabled", havingValue = "true", matchIfMissing = true)
+public class VirtualThreadPinningMonitor {
+
+    private static final Logger log = LoggerFactory.getLogger(VirtualThreadPinningMonitor.class);
+
+    private static final String OUR_PACKAGE = "com.example.groceries_jwt_project.";
+
+    static final int MIN_JAVA_VERSION = 21;
+
+    private final MeterRegistry meterRegistry;
+
+    // Pins shorter than this are normal (e.g. a brief monitor enter) and not reported
+    @Value("${app.jfr.pinning-monitor.threshold-ms:20}")
+    private long thresholdMs;
+
+    @Value("${app.jfr.pinning-monitor.logs-per-second:1}")
+    private int logsPerSecond;
+
+    private LogRateLimiter limiter;
+    private RecordingStream stream;
+
+    public VirtualThreadPinningMonitor(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    void start() {
+        if (Runtime.version().feature() < MIN_JAVA_VERSION) {
+            log.atInfo().setMessage("Virtual thread pinning monitor not started: needs JDK " + MIN_JAVA_VERSION + "+")
+                    .addKeyValue("jdk", Runtime.version().feature()).log();
+            return;
+        }
+        limiter = new LogRateLimiter(logsPerSecond);
+        stream = new RecordingStream();
+        stream.enable("jdk.VirtualThreadPinned").withThreshold(Duration.ofMillis(thresholdMs)).withStackTrace();
+        stream.onEvent("jdk.VirtualThreadPinned", this::onPinned);
+        stream.startAsync();
+    }
+
+    @PreDestroy
+    void stop() {
+        if (stream != null) {
+            stream.close();
+        }
+    }
+
+    /** true once the JFR stream runs (JDK 21+). */
+    boolean isRunning() {
+        return stream != null;
+    }
+
+    private void onPinned(RecordedEvent event) {
+        String site = site(event.getStackTrace());
+        Counter.builder("jvm.threads.virtual.pinned")
+                .description("Virtual threads that pinned their carrier longer than the threshold")
+                .tag("site", site)
+                .register(meterRegistry)
+                .increment();
+
+        long suppressed = limiter.tryAcquire();
+        if (suppressed >= 0) {
+            log.atWarn()
+                    .setMessage("Virtual thread pinned its carrier")
+                    .addKeyValue("site", site)
+                    .addKeyValue("durationMs", event.getDuration().toMillis())
+                    .addKeyValue("suppressed", suppressed)
+                    .log();
+        }
+    }
+
+    // First frame in our code, as Class.method:line; the JDK/library frames above it are the "how"
+    private static String site(RecordedStackTrace stackTrace) {
+        if (stackTrace == null) {
+            return "other";
+        }
+        List<RecordedFrame> frames = stackTrace.getFrames();
+        for (RecordedFrame frame : frames) {
+            String type = frame.getMethod().getType().getName();
+            if (type.startsWith(OUR_PACKAGE)) {
+                return type.substring(OUR_PACKAGE.length()) + "." + frame.getMethod().getName()
+                        + ":" + frame.getLineNumber();
+            }
+        }
+        return "other";
+    }
+}
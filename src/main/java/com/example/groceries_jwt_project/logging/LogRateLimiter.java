@@ -0,0 +1,42 @@
+package com.example.groceries_jwt_project.logging;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * LogRateLimiter:
+ *  - Lets at most N log events through per one-second window; the rest are counted, not logged.
+ *  - The next event that gets through reports how many were suppressed before it.
+ *  - Lock-free, so a storm of bad tokens never makes request threads queue on a logger.
+ */
+public final class LogRateLimiter {
+
+    private static final long WINDOW_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final int permitsPerSecond;
+    private final AtomicLong windowStart = new AtomicLong(System.nanoTime());
+    private final AtomicInteger used = new AtomicInteger();
+    private final AtomicLong suppressed = new AtomicLong();
+
+    public LogRateLimiter(int permitsPerSecond) {
+        this.permitsPerSecond = permitsPerSecond;
+    }
+
+    /**
+     * @return -1 if this event should be dropped, otherwise the number of events
+     *         dropped since the last one that was allowed through
+     */
+    public long tryAcquire() {
+        long now = System.nanoTime();
+        long start = windowStart.get();
+        if (now - start >= WINDOW_NANOS && windowStart.compareAndSet(start, now)) {
+            used.set(0); // a few events may slip across the boundary; that is fine for logging
+        }
+        if (used.incrementAndGet() > permitsPerSecond) {
+            suppressed.incrementAndGet();
+            return -1;
+        }
+        return suppressed.getAndSet(0);
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.groceries_jwt_project.metrics;
+
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Per-stage timers for CartService.checkout (cart.checkout.stage{stage=...}).
+ * Built once here so the checkout path never looks meters up by name.
+ */
+@Component
+public class CheckoutMetrics {
+
+    private final Timer loadCart;
+    private final Timer claimCart;
+    private final Timer decrement;
+
+    public CheckoutMetrics(MeterRegistry meterRegistry) {
+        this.loadCart = stageTimer(meterRegistry, "load_cart");
+        this.claimCart = stageTimer(meterRegistry, "claim_cart");
+        this.decrement = stageTimer(meterRegistry, "decrement");
+    }
+
+    public void recordLoadCart(long nanos) {
+        loadCart.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordClaimCart(long nanos) {
+        claimCart.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordDecrement(long nanos) {
+        decrement.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    private static Timer stageTimer(MeterRegistry meterRegistry, String stage) {
+        return Timer.builder("cart.checkout.stage")
+                .description("Time spent in each checkout stage")
+                .tag("stage", stage)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+}
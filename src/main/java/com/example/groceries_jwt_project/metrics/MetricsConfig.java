@@ -0,0 +1,22 @@
+package com.example.groceries_jwt_project.metrics;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * MetricsConfig: wiring that Spring Boot's actuator does not do on its own.
+ *  - @Timed on services/JWT code is handled by Boot's TimedAspect
+ *    (management.observations.annotations.enabled=true).
+ *  - Hikari, JVM, HTTP and cache meters are bound automatically.
+ *  - Here we only plug the per-request SQL statement counter into Hibernate.
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer sqlStatementCounterCustomizer() {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, new SqlStatementCounter());
+    }
+}
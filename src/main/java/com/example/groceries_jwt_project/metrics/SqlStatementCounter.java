@@ -0,0 +1,33 @@
+package com.example.groceries_jwt_project.metrics;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * SqlStatementCounter:
+ *  - Hibernate calls inspect() once for every SQL statement it prepares.
+ *  - We only bump a per-thread counter (no SQL is changed, nothing is logged).
+ *  - SqlStatementMetricsFilter resets it at the start of a request and
+ *    records the total when the request ends.
+ */
+public class SqlStatementCounter implements StatementInspector {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final ThreadLocal<int[]> COUNT = ThreadLocal.withInitial(() -> new int[1]);
+
+    @Override
+    public String inspect(String sql) {
+        COUNT.get()[0]++;
+        return sql; // unchanged
+    }
+
+    /** Start a new count for the current thread. */
+    public static void reset() {
+        COUNT.get()[0] = 0;
+    }
+
+    /** Statements prepared on the current thread since the last reset(). */
+    public static int current() {
+        return COUNT.get()[0];
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.groceries_jwt_project.metrics;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Records how many SQL statements each HTTP request executed
+ * (http.server.requests.sql.statements, tagged by URI template and method).
+ * Runs first so the JWT filter's user lookup is included in the count.
+ * One summary per URI template and method, built on first use and then taken from a map,
+ * so a request does not go through the registry's builder and lookup.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@RequiredArgsConstructor
+public class SqlStatementMetricsFilter extends OncePerRequestFilter {
+
+    private final MeterRegistry meterRegistry;
+    private final Map<String, DistributionSummary> summaries = new ConcurrentHashMap<>();
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        SqlStatementCounter.reset();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            // URI template (e.g. /api/groceries/{id}) keeps tag cardinality bounded
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            summary(pattern != null ? pattern.toString() : "UNKNOWN", request.getMethod())
+                    .record(SqlStatementCounter.current());
+        }
+    }
+
+    private DistributionSummary summary(String uri, String method) {
+        return summaries.computeIfAbsent(method + ' ' + uri, key -> DistributionSummary
+                .builder("http.server.requests.sql.statements")
+                .description("SQL statements executed per HTTP request")
+                .baseUnit("statements")
+                .tag("uri", uri)
+                .tag("method", method)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry));
+    }
+}
@@ -0,0 +1,9 @@
+package com.example.groceries_jwt_project.provisioning;
+
+/**
+ * One entry of a bulk provisioning request.
+ *
+ * @param role ROLE_USER (default when missing) or ROLE_ADMIN
+ */
+public record NewUser(String username, String password, String role) {
+}
@@ -0,0 +1,12 @@
+package com.example.groceries_jwt_project.provisioning;
+
+import java.util.List;
+
+/**
+ * Outcome of a bulk provisioning request.
+ *
+ * @param results one per requested user, in request order
+ */
+public record ProvisioningReport(int requested, int created, int duplicates, int invalid, long elapsedMs,
+        List<ProvisioningResult> results) {
+}
@@ -0,0 +1,19 @@
+package com.example.groceries_jwt_project.provisioning;
+
+/** What happened to one requested user. detail says why for DUPLICATE and INVALID. */
+public record ProvisioningResult(String username, Status status, String detail) {
+
+    public enum Status { CREATED, DUPLICATE, INVALID }
+
+    static ProvisioningResult created(String username) {
+        return new ProvisioningResult(username, Status.CREATED, null);
+    }
+
+    static ProvisioningResult duplicate(String username, String detail) {
+        return new ProvisioningResult(username, Status.DUPLICATE, detail);
+    }
+
+    static ProvisioningResult invalid(String username, String detail) {
+        return new ProvisioningResult(username, Status.INVALID, detail);
+    }
+}
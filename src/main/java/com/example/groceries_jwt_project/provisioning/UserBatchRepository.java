@@ -0,0 +1,41 @@
+package com.example.groceries_jwt_project.provisioning;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * users inserts through plain JDBC batches: one prepared statement, many parameter sets,
+ * sent app.provisioning.insert-batch-size at a time. JPA would add an entity and an
+ * identity round trip per user. (On PostgreSQL, reWriteBatchedInserts=true in the JDBC URL
+ * additionally turns each batch into multi-row INSERTs.)
+ */
+@Repository
+public class UserBatchRepository {
+
+    private static final String INSERT = "INSERT INTO users (username, password, role) VALUES (?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int batchSize;
+
+    public UserBatchRepository(JdbcTemplate jdbcTemplate,
+                               @Value("${app.provisioning.insert-batch-size:500}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.batchSize = batchSize;
+    }
+
+    /** Users with already hashed passwords and a role. Throws DuplicateKeyException if a name is taken. */
+    public void insertBatch(List<NewUser> users) {
+        jdbcTemplate.batchUpdate(INSERT, users, batchSize, (ps, user) -> {
+            ps.setString(1, user.username());
+            ps.setString(2, user.password());
+            ps.setString(3, user.role());
+        });
+    }
+
+    public void insert(NewUser user) {
+        jdbcTemplate.update(INSERT, user.username(), user.password(), user.role());
+    }
+}
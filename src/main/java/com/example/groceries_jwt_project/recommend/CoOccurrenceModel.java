@@ -0,0 +1,177 @@
+package com.example.groceries_jwt_project.recommend;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * CoOccurrenceModel ("frequently bought together"):
+ *  - One row per product: a sparse LongFloatMap counting the baskets it shared with each other product,
+ *    and a TopK holding its k strongest neighbours, kept up to date as counts change.
+ *  - A row holds at most maxNeighbours counters. A new neighbour on a full row first evicts the
+ *    weakest ones, so memory is bounded by products × maxNeighbours whatever the basket history.
+ *  - decay() multiplies every count by a factor and forgets counts that fall below a floor:
+ *    old habits fade and rarely seen pairs disappear.
+ *  - Rows are locked one at a time; readers get a ranked list cached on the row until it changes.
+ */
+final class CoOccurrenceModel {
+
+    private static final int MAGIC = 0x434f4f43; // "COOC"
+    private static final int VERSION = 1;
+
+    private final Map<Long, Row> rows = new ConcurrentHashMap<>();
+    private final int topK;
+    private final int maxNeighbours;
+
+    CoOccurrenceModel(int topK, int maxNeighbours) {
+        this.topK = topK;
+        this.maxNeighbours = maxNeighbours;
+    }
+
+    /** Counts every pair in the basket, both ways. productIds must be distinct. */
+    void addBasket(long[] productIds) {
+        for (long product : productIds) {
+            while (!row(product).addPairs(product, productIds, 1f)) {
+                // the row was dropped by decay() while we waited for it: get the new one
+            }
+        }
+    }
+
+    /** The product's strongest neighbours, strongest first. */
+    List<Recommendation> recommend(long productId, int limit) {
+        Row row = rows.get(productId);
+        if (row == null) {
+            return List.of();
+        }
+        List<Recommendation> ranked = row.ranked();
+        return ranked.size() <= limit ? ranked : ranked.subList(0, limit);
+    }
+
+    void decay(float factor, float minWeight) {
+        rows.forEach((product, row) -> {
+            synchronized (row) {
+                row.counts.scale(factor);
+                row.top.scale(factor);
+                row.removeBelow(minWeight);
+                if (row.counts.size() == 0) {
+                    row.dropped = true;
+                    rows.remove(product, row);
+                }
+            }
+        });
+    }
+
+    int products() {
+        return rows.size();
+    }
+
+    // -------------------------------
+    // SNAPSHOT
+    // -------------------------------
+    // Format: MAGIC, VERSION, rows; per row: product, counters; per counter: neighbour, weight.
+    // Checkouts keep running meanwhile: each row is consistent, the whole is a row-by-row snapshot
+    void writeTo(DataOutput out) throws IOException {
+        List<Map.Entry<Long, Row>> entries = new ArrayList<>(rows.entrySet());
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeInt(entries.size());
+        for (Map.Entry<Long, Row> entry : entries) {
+            Row row = entry.getValue();
+            synchronized (row) {
+                out.writeLong(entry.getKey());
+                out.writeInt(row.counts.size());
+                IOException[] failure = new IOException[1];
+                row.counts.forEach((neighbour, weight) -> {
+                    try {
+                        out.writeLong(neighbour);
+                        out.writeFloat(weight);
+                    } catch (IOException ex) {
+                        failure[0] = ex;
+                    }
+                });
+                if (failure[0] != null) {
+                    throw failure[0];
+                }
+            }
+        }
+    }
+
+    // Replaces the current content; only called at startup, before any checkout is counted
+    void readFrom(DataInput in) throws IOException {
+        if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+            throw new IOException("Not a co-occurrence snapshot (version " + VERSION + ")");
+        }
+        int rowCount = in.readInt();
+        rows.clear();
+        for (int i = 0; i < rowCount; i++) {
+            long product = in.readLong();
+            int counters = in.readInt();
+            Row row = new Row(counters);
+            for (int j = 0; j < counters; j++) {
+                long neighbour = in.readLong();
+                float weight = in.readFloat();
+                row.top.offer(neighbour, row.counts.addTo(neighbour, weight));
+            }
+            if (counters > 0) {
+                rows.put(product, row);
+            }
+        }
+    }
+
+    private Row row(long product) {
+        return rows.computeIfAbsent(product, id -> new Row(8));
+    }
+
+    private final class Row {
+
+        private final LongFloatMap counts;
+        private final TopK top;
+        private boolean dropped;
+        private volatile List<Recommendation> ranked;
+
+        private Row(int expectedNeighbours) {
+            this.counts = new LongFloatMap(expectedNeighbours);
+            this.top = new TopK(topK);
+        }
+
+        private synchronized boolean addPairs(long product, long[] basket, float weight) {
+            if (dropped) {
+                return false;
+            }
+            for (long neighbour : basket) {
+                if (neighbour == product) {
+                    continue;
+                }
+                if (counts.size() >= maxNeighbours && !counts.containsKey(neighbour)) {
+                    // Full: evict the weakest counters (ties included) to make room
+                    removeBelow(Math.nextUp(counts.min()));
+                }
+                top.offer(neighbour, counts.addTo(neighbour, weight));
+            }
+            ranked = null;
+            return true;
+        }
+
+        // Counters and top-k hold the same weights, so the same threshold keeps them consistent
+        private void removeBelow(float threshold) {
+            counts.removeBelow(threshold);
+            top.removeBelow(threshold);
+            ranked = null;
+        }
+
+        private List<Recommendation> ranked() {
+            List<Recommendation> current = ranked;
+            if (current == null) {
+                synchronized (this) {
+                    current = top.ranked();
+                    ranked = current;
+                }
+            }
+            return current;
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package com.example.groceries_jwt_project.recommend;
+
+/**
+ * LongFloatMap:
+ *  - Open-addressing hash map from long keys to float values (linear probing).
+ *  - Two flat arrays instead of HashMap<Long, Float>: no boxing, no entry objects,
+ *    about 12 bytes per slot, so a sparse counter row costs little even with many rows.
+ *  - Key 0 marks a free slot and cannot be stored (product ids start at 1).
+ *  - Not thread-safe: the owner synchronizes.
+ */
+final class LongFloatMap {
+
+    private static final float LOAD_FACTOR = 0.6f;
+
+    private long[] keys;
+    private float[] values;
+    private int size;
+
+    LongFloatMap(int expectedSize) {
+        allocate(expectedSize);
+    }
+
+    /** Adds delta to the key's value (absent counts as 0) and returns the new value. */
+    float addTo(long key, float delta) {
+        if (key == 0) {
+            throw new IllegalArgumentException("Key 0 is reserved");
+        }
+        int mask = keys.length - 1;
+        int slot = slot(key, mask);
+        while (keys[slot] != 0) {
+            if (keys[slot] == key) {
+                return values[slot] += delta;
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        values[slot] = delta;
+        if (++size > keys.length * LOAD_FACTOR) {
+            rebuild(Float.NEGATIVE_INFINITY);
+        }
+        return delta;
+    }
+
+    /** The key's value, or 0 when absent. */
+    float get(long key) {
+        int mask = keys.length - 1;
+        int slot = slot(key, mask);
+        while (keys[slot] != 0) {
+            if (keys[slot] == key) {
+                return values[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+        return 0f;
+    }
+
+    boolean containsKey(long key) {
+        int mask = keys.length - 1;
+        int slot = slot(key, mask);
+        while (keys[slot] != 0) {
+            if (keys[slot] == key) {
+                return true;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return false;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /** Smallest value, or +Infinity when empty. */
+    float min() {
+        float min = Float.POSITIVE_INFINITY;
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != 0 && values[i] < min) {
+                min = values[i];
+            }
+        }
+        return min;
+    }
+
+    void scale(float factor) {
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != 0) {
+                values[i] *= factor;
+            }
+        }
+    }
+
+    /** Removes every entry whose value is below the threshold (and shrinks the arrays to fit). */
+    void removeBelow(float threshold) {
+        rebuild(threshold);
+    }
+
+    void forEach(Entry action) {
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != 0) {
+                action.accept(keys[i], values[i]);
+            }
+        }
+    }
+
+    @FunctionalInterface
+    interface Entry {
+        void accept(long key, float value);
+    }
+
+    // Re-inserts the entries that are kept into arrays sized for them. Linear probing has no cheap
+    // single delete, so removal always goes through here; it is only done in bulk (decay, eviction).
+    private void rebuild(float keepAtLeast) {
+        long[] oldKeys = keys;
+        float[] oldValues = values;
+        int kept = 0;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != 0 && oldValues[i] >= keepAtLeast) {
+                kept++;
+            }
+        }
+        allocate(kept + 1);
+        int mask = keys.length - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != 0 && oldValues[i] >= keepAtLeast) {
+                int slot = slot(oldKeys[i], mask);
+                while (keys[slot] != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+        size = kept;
+    }
+
+    private void allocate(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(4, (int) Math.ceil(expectedSize / LOAD_FACTOR)) - 1) << 1;
+        keys = new long[capacity];
+        values = new float[capacity];
+    }
+
+    // murmur3 finalizer: sequential ids would otherwise fill neighbouring slots and build long probe runs
+    private static int slot(long key, int mask) {
+        long h = key;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return (int) h & mask;
+    }
+}
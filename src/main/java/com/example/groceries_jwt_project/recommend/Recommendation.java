@@ -0,0 +1,8 @@
+package com.example.groceries_jwt_project.recommend;
+
+/**
+ * A product bought together with the one asked about.
+ * score is the decayed number of baskets that held both.
+ */
+public record Recommendation(long productId, double score) {
+}
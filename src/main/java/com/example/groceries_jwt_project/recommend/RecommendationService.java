@@ -0,0 +1,135 @@
+package com.example.groceries_jwt_project.recommend;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.example.groceries_jwt_project.service.CheckoutCompletedEvent;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * "Frequently bought together", learned incrementally from checkouts (no batch job over old carts):
+ *  - Every committed checkout adds its basket to the CoOccurrenceModel.
+ *  - Every app.recommendations.decay-interval-ms all weights are multiplied by
+ *    app.recommendations.decay-factor; pairs below app.recommendations.min-weight are forgotten.
+ *  - The model is written to app.recommendations.snapshot-file every
+ *    app.recommendations.snapshot-interval-ms (when it changed) and at shutdown, and read back at startup.
+ *  - Recommendations are answered from memory; deleted products may still be listed until they decay away.
+ */
+@Service
+public class RecommendationService {
+
+    private static final Logger log = LoggerFactory.getLogger(RecommendationService.class);
+
+    private final CoOccurrenceModel model;
+    private final Path snapshotFile;
+    private final int maxBasketSize;
+    private final float decayFactor;
+    private final float minWeight;
+    private volatile boolean dirty;
+
+    public RecommendationService(@Value("${app.recommendations.top-k:20}") int topK,
+                                 @Value("${app.recommendations.max-neighbours:256}") int maxNeighbours,
+                                 @Value("${app.recommendations.max-basket-size:50}") int maxBasketSize,
+                                 @Value("${app.recommendations.decay-factor:0.95}") float decayFactor,
+                                 @Value("${app.recommendations.min-weight:0.05}") float minWeight,
+                                 @Value("${app.recommendations.snapshot-file:recommendations/co-occurrence.bin}") Path snapshotFile,
+                                 MeterRegistry meterRegistry) {
+        this.model = new CoOccurrenceModel(topK, maxNeighbours);
+        this.maxBasketSize = maxBasketSize;
+        this.decayFactor = decayFactor;
+        this.minWeight = minWeight;
+        this.snapshotFile = snapshotFile;
+        Gauge.builder("recommendations.products", model, CoOccurrenceModel::products)
+                .description("Products with at least one co-occurrence counter")
+                .register(meterRegistry);
+    }
+
+    /** Products most often bought together with productId, strongest first. */
+    public List<Recommendation> recommend(long productId, int limit) {
+        return model.recommend(productId, limit);
+    }
+
+    // After commit only: a rolled-back checkout bought nothing. Pairs grow with the square of the
+    // basket size, so very large baskets only count their first max-basket-size products
+    @TransactionalEventListener
+    public void onCheckout(CheckoutCompletedEvent event) {
+        long[] basket = event.productIds().stream()
+                .limit(maxBasketSize)
+                .mapToLong(Long::longValue)
+                .toArray();
+        if (basket.length > 1) {
+            model.addBasket(basket);
+            dirty = true;
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.recommendations.decay-interval-ms:3600000}",
+            initialDelayString = "${app.recommendations.decay-interval-ms:3600000}")
+    public void decay() {
+        model.decay(decayFactor, minWeight);
+        dirty = true;
+    }
+
+    // -------------------------------
+    // SNAPSHOT
+    // -------------------------------
+    @PostConstruct
+    void load() {
+        if (!Files.exists(snapshotFile)) {
+            return;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(snapshotFile)))) {
+            model.readFrom(in);
+            log.atInfo().setMessage("Recommendations loaded")
+                    .addKeyValue("file", snapshotFile).addKeyValue("products", model.products()).log();
+        } catch (IOException ex) {
+            // Start empty rather than not at all: the model rebuilds itself from new checkouts
+            log.atWarn().setMessage("Recommendation snapshot could not be read")
+                    .addKeyValue("file", snapshotFile).addKeyValue("reason", ex.getMessage()).log();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.recommendations.snapshot-interval-ms:300000}",
+            initialDelayString = "${app.recommendations.snapshot-interval-ms:300000}")
+    @PreDestroy
+    public synchronized void snapshot() {
+        if (!dirty) {
+            return;
+        }
+        dirty = false;
+        // Written next to the target and moved over it, so a crash never leaves half a snapshot behind
+        Path temp = snapshotFile.resolveSibling(snapshotFile.getFileName() + ".tmp");
+        try {
+            Path parent = snapshotFile.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                model.writeTo(out);
+            }
+            Files.move(temp, snapshotFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException ex) {
+            dirty = true;
+            log.atWarn().setMessage("Recommendation snapshot could not be written")
+                    .addKeyValue("file", snapshotFile).addKeyValue("reason", ex.getMessage()).log();
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.groceries_jwt_project.recommend;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * TopK:
+ *  - The k highest-scoring ids seen so far, as a bounded min-heap over two primitive arrays.
+ *  - The root is the weakest member: a newcomer only has to beat it to get in.
+ *  - Scores of members may be raised or lowered again (offer with the id's current score).
+ *  - Not thread-safe: the owner synchronizes.
+ */
+final class TopK {
+
+    private final long[] ids;
+    private final float[] scores;
+    private int size;
+
+    TopK(int k) {
+        this.ids = new long[k];
+        this.scores = new float[k];
+    }
+
+    /** Records the id's current score: updates a member, or admits the id if it beats the weakest. */
+    void offer(long id, float score) {
+        for (int i = 0; i < size; i++) {
+            if (ids[i] == id) {
+                float previous = scores[i];
+                scores[i] = score;
+                if (score > previous) {
+                    siftDown(i);
+                } else {
+                    siftUp(i);
+                }
+                return;
+            }
+        }
+        if (size < ids.length) {
+            ids[size] = id;
+            scores[size] = score;
+            siftUp(size++);
+        } else if (ids.length > 0 && score > scores[0]) {
+            ids[0] = id;
+            scores[0] = score;
+            siftDown(0);
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    /** Same factor as the counters, so the order does not change. */
+    void scale(float factor) {
+        for (int i = 0; i < size; i++) {
+            scores[i] *= factor;
+        }
+    }
+
+    void removeBelow(float threshold) {
+        int kept = 0;
+        for (int i = 0; i < size; i++) {
+            if (scores[i] >= threshold) {
+                ids[kept] = ids[i];
+                scores[kept] = scores[i];
+                kept++;
+            }
+        }
+        size = kept;
+        for (int i = size / 2 - 1; i >= 0; i--) {
+            siftDown(i);
+        }
+    }
+
+    /** Members, strongest first. */
+    List<Recommendation> ranked() {
+        List<Recommendation> ranked = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            ranked.add(new Recommendation(ids[i], scores[i]));
+        }
+        ranked.sort(Comparator.comparingDouble(Recommendation::score).reversed()
+                .thenComparingLong(Recommendation::productId));
+        return List.copyOf(ranked);
+    }
+
+    private void siftUp(int i) {
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (scores[parent] <= scores[i]) {
+                return;
+            }
+            swap(i, parent);
+            i = parent;
+        }
+    }
+
+    private void siftDown(int i) {
+        while (true) {
+            int smallest = i;
+            int left = 2 * i + 1;
+            int right = left + 1;
+            if (left < size && scores[left] < scores[smallest]) {
+                smallest = left;
+            }
+            if (right < size && scores[right] < scores[smallest]) {
+                smallest = right;
+            }
+            if (smallest == i) {
+                return;
+            }
+            swap(i, smallest);
+            i = smallest;
+        }
+    }
+
+    private void swap(int a, int b) {
+        long id = ids[a];
+        ids[a] = ids[b];
+        ids[b] = id;
+        float score = scores[a];
+        scores[a] = scores[b];
+        scores[b] = score;
+    }
+}
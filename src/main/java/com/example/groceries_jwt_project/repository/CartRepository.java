@@ -1,8 +1,13 @@
 package com.example.groceries_jwt_project.repository;
 
+import java.util.Collection;
 import java.util.List;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.example.groceries_jwt_project.entity.Cart;
@@ -10,4 +15,18 @@ import com.example.groceries_jwt_project.entity.Cart;
 @Repository
 public interface CartRepository extends JpaRepository<Cart, Long> {
     List<Cart> findByUserId(Long userId);
-}
\ No newline at end of file
+
+    // Returns how many rows were actually deleted, so a concurrent checkout of the same cart is detectable
+    @Modifying
+    @Query("delete from Cart c where c.id in :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Only the owner's line: 0 when the line does not exist or belongs to another user
+    @Modifying
+    @Query("delete from Cart c where c.id = :id and c.userId = :userId")
+    int deleteByIdAndUserId(@Param("id") Long id, @Param("userId") Long userId);
+
+    // Products sitting in the most carts right now (current demand), for the warm-up preload
+    @Query("select c.productId from Cart c group by c.productId order by count(c) desc")
+    List<Long> findMostWantedProductIds(Pageable pageable);
+}
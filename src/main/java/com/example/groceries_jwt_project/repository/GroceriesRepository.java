@@ -1,11 +1,56 @@
 package com.example.groceries_jwt_project.repository;
 
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.example.groceries_jwt_project.entity.Groceries;
 
+import jakarta.persistence.LockModeType;
+
 @Repository
 public interface GroceriesRepository extends JpaRepository<Groceries, Long> {
 
+    // Id and stock only, for the whole catalog: no entities, no persistence context
+    @Query("select g.id as id, g.quantity as quantity from Groceries g")
+    List<StockLevel> findAllStockLevels();
+
+    interface StockLevel {
+        Long getId();
+
+        int getQuantity();
+    }
+
+    // Most recently changed products first (idx_groceries_updated_at)
+    List<Groceries> findAllByOrderByUpdatedAtDesc(Pageable pageable);
+
+    // Check and decrement in ONE statement: 0 rows means "not found or not enough stock"
+    @Modifying
+    @Query("update Groceries g set g.quantity = g.quantity - :quantity, g.updatedAt = :now "
+            + "where g.id = :id and g.quantity >= :quantity")
+    int decrementIfAvailable(@Param("id") Long id, @Param("quantity") int quantity, @Param("now") LocalDateTime now);
+
+    // SELECT ... FOR UPDATE: holds the row lock until the transaction ends
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select g from Groceries g where g.id = :id")
+    Optional<Groceries> findByIdForUpdate(@Param("id") Long id);
+
+    // Scalar read that bypasses the persistence context, for compare-and-set retries
+    @Query("select g.quantity from Groceries g where g.id = :id")
+    Optional<Integer> findQuantityById(@Param("id") Long id);
+
+    // Compare-and-set: only succeeds if nobody changed the quantity since it was read
+    @Modifying
+    @Query("update Groceries g set g.quantity = :newQuantity, g.updatedAt = :now "
+            + "where g.id = :id and g.quantity = :expected")
+    int compareAndSetQuantity(@Param("id") Long id, @Param("expected") int expected,
+            @Param("newQuantity") int newQuantity, @Param("now") LocalDateTime now);
 }
@@ -1,8 +1,12 @@
 package com.example.groceries_jwt_project.repository;
  
+import java.util.Collection;
 import java.util.Optional;
+import java.util.Set;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.example.groceries_jwt_project.entity.User;
@@ -12,4 +16,8 @@ import com.example.groceries_jwt_project.entity.User;
 public interface UserRepository extends JpaRepository<User, Long>  {
 	Optional<User> findByUsername(String username);
 	boolean existsByUsername(String username);
+
+	// Set-based duplicate check for bulk provisioning: one query for a whole chunk of names
+	@Query("select u.username from User u where u.username in :usernames")
+	Set<String> findExistingUsernames(@Param("usernames") Collection<String> usernames);
 }
\ No newline at end of file
@@ -0,0 +1,84 @@
+package com.example.groceries_jwt_project.security;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * BloomFilter:
+ *  - Fixed-size bit set answering "definitely not present" or "maybe present".
+ *  - No false negatives, a tunable rate of false positives, no removal.
+ *  - Lock-free: bits are set with CAS, reads are plain volatile loads.
+ *
+ * Used as the front of the token revocation check: almost every token is NOT
+ * revoked, and for those the filter answers in a few array reads.
+ */
+final class BloomFilter {
+
+    private final AtomicLongArray words;
+    private final long bitCount;
+    private final int hashCount;
+
+    /**
+     * @param expectedEntries   how many entries the filter is sized for
+     * @param falsePositiveRate acceptable "maybe present" rate at that size (e.g. 0.01)
+     */
+    BloomFilter(int expectedEntries, double falsePositiveRate) {
+        int n = Math.max(1, expectedEntries);
+        // Optimal size m = -n·ln(p) / ln(2)²  and hash count k = m/n · ln(2)
+        long m = (long) Math.ceil(-n * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        m = Math.max(64, m);
+        this.words = new AtomicLongArray((int) ((m + 63) >>> 6));
+        this.bitCount = (long) words.length() << 6;
+        this.hashCount = Math.max(1, (int) Math.round((double) m / n * Math.log(2)));
+    }
+
+    void add(String value) {
+        long hash = hash64(value);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 1; i <= hashCount; i++) {
+            long bit = index(h1 + i * h2);
+            int word = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            long current;
+            do {
+                current = words.get(word);
+                if ((current & mask) != 0) {
+                    break;
+                }
+            } while (!words.compareAndSet(word, current, current | mask));
+        }
+    }
+
+    boolean mightContain(String value) {
+        long hash = hash64(value);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 1; i <= hashCount; i++) {
+            long bit = index(h1 + i * h2);
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private long index(int combined) {
+        // Kirsch–Mitzenmacher double hashing; flip negatives instead of Math.abs (MIN_VALUE)
+        return (combined < 0 ? ~combined : combined) % bitCount;
+    }
+
+    // FNV-1a over the UTF-16 chars, followed by a murmur3 finalizer for better bit spread
+    private static long hash64(String value) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            h ^= value.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -1,9 +1,14 @@
 package com.example.groceries_jwt_project.security;
 
 import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.stream.Collectors;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -11,7 +16,12 @@ import org.springframework.security.web.authentication.WebAuthenticationDetailsS
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
+import com.example.groceries_jwt_project.jfr.JwtVerifyEvent;
+import com.example.groceries_jwt_project.logging.LogRateLimiter;
+
+import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
+import jakarta.annotation.PostConstruct;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -22,24 +32,79 @@ import jakarta.servlet.http.HttpServletResponse;
  *  - Runs ONCE per request.
  *  - Reads "Authorization: Bearer <token>" header.
  *  - Validates token using JwtUtil.
+ *  - Rejects tokens whose id ("jti") was revoked (logout), without a DB query.
  *  - If valid: sets Authentication into SecurityContext (so Spring knows "who").
  *  - The rest of the filter chain then applies authorization rules.
+ *
+ * Logging (this runs on every request, so it must stay cheap):
+ *  - MDC "requestId" (from X-Request-Id or generated) and "user" for every log line of the request.
+ *  - Successful validations are SAMPLED (app.logging.jwt.success-sample-rate).
+ *  - Failures (expired / revoked / invalid) are RATE-LIMITED per kind (app.logging.jwt.failures-per-second).
+ *  - Values are passed as key-values/parameters, so nothing is formatted when the level is off.
  */
 @Component
 public class JwtAuthFilter extends OncePerRequestFilter {
 
+    private static final Logger log = LoggerFactory.getLogger(JwtAuthFilter.class);
+
+    static final String REQUEST_ID_HEADER = "X-Request-Id";
+    static final String MDC_REQUEST_ID = "requestId";
+    static final String MDC_USER = "user";
+
     @Autowired
     private JwtUtil jwtUtil; // Our utility to generate/parse JWT
 
     @Autowired
     private MyUserDetailsService userDetailsService; // Loads user + roles from DB
 
+    @Autowired
+    private TokenRevocationService revocationService; // In-memory revocation check (Bloom filter + exact set)
+
+    // Share of successful validations that get logged (0.0 = none, 1.0 = all)
+    @Value("${app.logging.jwt.success-sample-rate:0.01}")
+    private double successSampleRate;
+
+    // Per failure kind, how many log lines per second at most
+    @Value("${app.logging.jwt.failures-per-second:5}")
+    private int failuresPerSecond;
+
+    private LogRateLimiter expiredLimiter;
+    private LogRateLimiter revokedLimiter;
+    private LogRateLimiter invalidLimiter;
+
+    @PostConstruct
+    void initLimiters() {
+        expiredLimiter = new LogRateLimiter(failuresPerSecond);
+        revokedLimiter = new LogRateLimiter(failuresPerSecond);
+        invalidLimiter = new LogRateLimiter(failuresPerSecond);
+    }
+
     @Override
     protected void doFilterInternal(HttpServletRequest request,
                                     HttpServletResponse response,
                                     FilterChain filterChain)
             throws ServletException, IOException {
 
+        // 0) Correlate every log line of this request (echoed back so clients can quote it)
+        String requestId = request.getHeader(REQUEST_ID_HEADER);
+        if (requestId == null || requestId.isEmpty() || requestId.length() > 64) {
+            requestId = Long.toHexString(ThreadLocalRandom.current().nextLong());
+        }
+        MDC.put(MDC_REQUEST_ID, requestId);
+        response.setHeader(REQUEST_ID_HEADER, requestId);
+        try {
+            authenticate(request, response, filterChain);
+        } finally {
+            MDC.remove(MDC_USER);
+            MDC.remove(MDC_REQUEST_ID);
+        }
+    }
+
+    private void authenticate(HttpServletRequest request,
+                              HttpServletResponse response,
+                              FilterChain filterChain)
+            throws ServletException, IOException {
+
         // 1) Skip JWT validation for auth endpoints (login/register) to avoid noise.
         //    (They don't need a token yet.)
         String path = request.getRequestURI();
@@ -56,8 +121,32 @@ public class JwtAuthFilter extends OncePerRequestFilter {
         try {
             if (authHeader != null && authHeader.startsWith("Bearer ")) {
                 token = authHeader.substring(7); // cut "Bearer "
-                // 3) Extract username; JwtUtil will also verify signature along the way
-                username = jwtUtil.extractUsername(token);
+
+                // JFR event: costs nothing unless a recording is running and the check is slow
+                JwtVerifyEvent verifyEvent = new JwtVerifyEvent();
+                verifyEvent.begin();
+                String outcome = "INVALID";
+                try {
+                    // 3) Verify signature and read claims; JwtUtil throws if tampered/expired
+                    Claims claims = jwtUtil.parseClaims(token);
+                    if (revocationService.isRevoked(claims.getId())) {
+                        // Logged out / revoked before expiry → treat as unauthenticated
+                        outcome = "REVOKED";
+                        logFailure(revokedLimiter, "JWT revoked", claims.getId());
+                    } else {
+                        outcome = "VALID";
+                        username = claims.getSubject();
+                    }
+                } catch (ExpiredJwtException ex) {
+                    outcome = "EXPIRED";
+                    throw ex;
+                } finally {
+                    verifyEvent.end();
+                    if (verifyEvent.shouldCommit()) {
+                        verifyEvent.outcome = outcome;
+                        verifyEvent.commit();
+                    }
+                }
             }
 
             // 4) If we extracted a username and the user is not already authenticated in this request
@@ -66,7 +155,7 @@ public class JwtAuthFilter extends OncePerRequestFilter {
                 UserDetails userDetails = userDetailsService.loadUserByUsername(username);
 
                 // Basic check: subject in token should match this user.
-                // (You can also add extra checks: token not revoked, token not expired, etc.)
+                // (Expiry and revocation were already checked above.)
                 if (username.equals(userDetails.getUsername())) {
                     // 5) Build an Authentication with authorities (roles)
                     UsernamePasswordAuthenticationToken authToken =
@@ -82,22 +171,44 @@ public class JwtAuthFilter extends OncePerRequestFilter {
                     // 7) Put the Authentication into the SecurityContext
                     SecurityContextHolder.getContext().setAuthentication(authToken);
 
-                    // (Optional demo logging)
-                    System.out.println("[JWT] Token validated for user: " + username +
-                            " | roles=" + userDetails.getAuthorities()
-                                    .stream().map(Object::toString).collect(Collectors.joining(",")));
+                    MDC.put(MDC_USER, username);
+
+                    // Sampled: at high RPS logging every success would cost more than the check itself.
+                    // The roles supplier only runs if the line is actually written.
+                    if (successSampleRate > 0 && ThreadLocalRandom.current().nextDouble() < successSampleRate) {
+                        log.atInfo()
+                                .setMessage("JWT validated")
+                                .addKeyValue("roles", () -> userDetails.getAuthorities()
+                                        .stream().map(Object::toString).collect(Collectors.joining(",")))
+                                .log();
+                    }
                 }
             }
         } catch (ExpiredJwtException ex) {
             // Token is valid structurally but has expired
-            System.out.println("[JWT] Expired token: " + ex.getMessage());
+            logFailure(expiredLimiter, "JWT expired", ex.getMessage());
         } catch (Exception ex) {
             // Signature invalid, malformed token, etc.
-            System.out.println("[JWT] Validation failed: " + ex.getMessage());
+            logFailure(invalidLimiter, "JWT validation failed", ex.getMessage());
         }
 
         // 8) Continue down the chain (either authenticated or not).
         //    If not authenticated and endpoint requires it, Security will return 401/403.
         filterChain.doFilter(request, response);
     }
+
+    // Bad tokens come in storms (expired sessions, scanners): cap the lines per second
+    private void logFailure(LogRateLimiter limiter, String message, String reason) {
+        if (!log.isWarnEnabled()) {
+            return;
+        }
+        long suppressed = limiter.tryAcquire();
+        if (suppressed >= 0) {
+            log.atWarn()
+                    .setMessage(message)
+                    .addKeyValue("reason", reason)
+                    .addKeyValue("suppressed", suppressed)
+                    .log();
+        }
+    }
 }
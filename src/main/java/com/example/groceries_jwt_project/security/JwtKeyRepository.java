@@ -0,0 +1,96 @@
+package com.example.groceries_jwt_project.security;
+
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.KeyPair;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.List;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * jwt_signing_keys (V3 migration): the key ring every node shares. Rows move NEXT → ACTIVE → RETIRED;
+ * a rotation is one transaction and only succeeds for the node that still sees the current ACTIVE key,
+ * so nodes whose rotation timers fire together rotate once, not once each.
+ */
+@Repository
+@RequiredArgsConstructor
+public class JwtKeyRepository {
+
+    static final String NEXT = "NEXT";
+    static final String ACTIVE = "ACTIVE";
+    static final String RETIRED = "RETIRED";
+
+    private static final String INSERT = "INSERT INTO jwt_signing_keys "
+            + "(kid, algorithm, key_type, state, public_key, private_key, created_at) VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private static final RowMapper<StoredKey> MAPPER = (rs, rowNum) -> {
+        Timestamp verifyUntil = rs.getTimestamp("verify_until");
+        return new StoredKey(rs.getString("kid"), rs.getString("state"),
+                decode(rs.getString("key_type"), rs.getString("public_key"), rs.getString("private_key")),
+                rs.getTimestamp("created_at").toInstant(), verifyUntil != null ? verifyUntil.toInstant() : null);
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /** NEXT, ACTIVE and the RETIRED keys that still verify, ordered by kid (so every node picks the same ones). */
+    public List<StoredKey> findLive(String algorithm, Instant now) {
+        return jdbcTemplate.query("SELECT kid, state, key_type, public_key, private_key, created_at, verify_until "
+                + "FROM jwt_signing_keys WHERE algorithm = ? AND (state <> ? OR verify_until > ?) ORDER BY kid",
+                MAPPER, algorithm, RETIRED, Timestamp.from(now));
+    }
+
+    public void insert(String algorithm, StoredKey key) {
+        Base64.Encoder base64 = Base64.getEncoder();
+        jdbcTemplate.update(INSERT, key.kid(), algorithm, key.pair().getPublic().getAlgorithm(), key.state(),
+                base64.encodeToString(key.pair().getPublic().getEncoded()),
+                base64.encodeToString(key.pair().getPrivate().getEncoded()),
+                Timestamp.from(key.createdAt()));
+    }
+
+    /**
+     * Retire activeKid (verifiable until retireAt), promote nextKid and store fresh as the new NEXT.
+     * false when activeKid is no longer ACTIVE: another node rotated first and nothing was changed.
+     */
+    @Transactional
+    public boolean rotate(String algorithm, String activeKid, String nextKid, StoredKey fresh, Instant retireAt) {
+        Timestamp until = Timestamp.from(retireAt);
+        // Row lock: a concurrent rotation waits here, then finds the key already retired
+        if (jdbcTemplate.update("UPDATE jwt_signing_keys SET state = ?, verify_until = ? WHERE kid = ? AND state = ?",
+                RETIRED, until, activeKid, ACTIVE) == 0) {
+            return false;
+        }
+        jdbcTemplate.update("UPDATE jwt_signing_keys SET state = ? WHERE kid = ? AND state = ?", ACTIVE, nextKid, NEXT);
+        // Spare ACTIVE/NEXT rows left by nodes that created the ring at the same moment
+        jdbcTemplate.update("UPDATE jwt_signing_keys SET state = ?, verify_until = ? "
+                + "WHERE algorithm = ? AND state IN (?, ?) AND kid <> ?", RETIRED, until, algorithm, ACTIVE, NEXT, nextKid);
+        insert(algorithm, fresh);
+        jdbcTemplate.update("DELETE FROM jwt_signing_keys WHERE algorithm = ? AND state = ? AND verify_until < ?",
+                algorithm, RETIRED, Timestamp.from(fresh.createdAt()));
+        return true;
+    }
+
+    private static KeyPair decode(String keyType, String publicKey, String privateKey) {
+        Base64.Decoder base64 = Base64.getDecoder();
+        try {
+            KeyFactory factory = KeyFactory.getInstance(keyType);
+            return new KeyPair(factory.generatePublic(new X509EncodedKeySpec(base64.decode(publicKey))),
+                    factory.generatePrivate(new PKCS8EncodedKeySpec(base64.decode(privateKey))));
+        } catch (GeneralSecurityException ex) {
+            throw new IllegalStateException("Unreadable " + keyType + " key in jwt_signing_keys", ex);
+        }
+    }
+
+    /** One row of the shared ring; verifyUntil is null until the key is retired. */
+    public record StoredKey(String kid, String state, KeyPair pair, Instant createdAt, Instant verifyUntil) {
+    }
+}
@@ -0,0 +1,386 @@
+package com.example.groceries_jwt_project.security;
+
+import java.security.KeyPair;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Jwks;
+import io.jsonwebtoken.security.PublicJwk;
+import io.jsonwebtoken.security.SignatureAlgorithm;
+import jakarta.annotation.PostConstruct;
+
+/**
+ * JwtKeyRing:
+ *  - Holds the asymmetric signing keys used when app.jwt.algorithm is ES256 or EdDSA.
+ *  - ACTIVE key  → signs every new token (its id goes into the "kid" header).
+ *  - NEXT key    → already published in the JWKS, but not signing yet.
+ *  - RETIRED key → no longer signs, still verifies until the last token it signed has expired.
+ *
+ * Teaching points:
+ *  - Only PUBLIC keys ever leave this class (via the JWKS endpoint).
+ *    Other nodes and edge services verify tokens without knowing any secret.
+ *  - Publishing NEXT one rotation ahead means a consumer that cached our JWKS
+ *    already knows the key before the first token signed with it shows up.
+ *  - Keys live in the shared jwt_signing_keys table (JwtKeyRepository): every node signs with the
+ *    same ACTIVE key, so any node verifies any node's tokens, and restarts keep them valid.
+ *    Nodes re-read the table every app.jwt.rotation.check-interval-ms, and right away (at most
+ *    every few seconds) when a token names a kid they do not know yet.
+ *  - Whichever node first sees the rotation interval elapsed rotates, for all nodes.
+ *  - A missing ACTIVE or NEXT row (deleted by hand, say) is recreated on the next refresh.
+ *  - Table reads run outside any lock, and the in-memory swap is guarded by a ReentrantLock rather
+ *    than synchronized: an unknown kid is handled on the request thread, which may be a virtual thread.
+ *  - With HS256 (the default) the ring stays empty and JwtUtil keeps using the shared secret.
+ */
+@Component
+public class JwtKeyRing {
+
+    private static final Logger log = LoggerFactory.getLogger(JwtKeyRing.class);
+
+    // Unknown kids come from other nodes' fresh keys, or from forged tokens: re-read the table at most this often
+    private static final long UNKNOWN_KID_RELOAD_MS = 5_000;
+
+    // HS256 (shared secret, default) | ES256 | EdDSA
+    @Value("${app.jwt.algorithm:HS256}")
+    private String algorithmName;
+
+    // Token lifetime: a retired key must outlive every token it signed
+    @Value("${app.jwt.expiration-ms}")
+    private long expiration;
+
+    // Extra grace for clocks that are slightly ahead/behind ours
+    @Value("${app.jwt.rotation.clock-skew-ms:60000}")
+    private long clockSkew;
+
+    // How long a key is ACTIVE before the NEXT one takes over
+    @Value("${app.jwt.rotation.interval-ms:43200000}")
+    private long rotationInterval;
+
+    // Shared key storage; null → keys in memory only, per instance (unit tests)
+    @Autowired(required = false)
+    private JwtKeyRepository keyRepository;
+
+    // Every key we still accept, by "kid"
+    private final Map<String, RingKey> keys = new ConcurrentHashMap<>();
+
+    private SignatureAlgorithm algorithm; // null → HS256 mode
+    private volatile RingKey active;
+    private volatile RingKey next;
+    private volatile String jwksJson = "{\"keys\":[]}";
+    private volatile String jwksEtag = "\"empty\"";
+    private final AtomicLong lastReload = new AtomicLong();
+    private final ReentrantLock lock = new ReentrantLock();
+    private long appliedAt; // read time of the table view in use, guarded by lock
+
+    @PostConstruct
+    void init() {
+        algorithm = resolveAlgorithm(algorithmName);
+        if (algorithm == null) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        if (keyRepository == null) {
+            active = remember(newKey(now));
+            next = remember(newKey(now));
+            republish();
+            return;
+        }
+        reload();
+        // First node on an empty table creates the ring (nodes racing here agree on the same keys after reload)
+        createMissingKeys();
+    }
+
+    /** true when tokens are signed with ES256/EdDSA key pairs instead of the HS256 secret. */
+    public boolean isAsymmetric() {
+        return algorithm != null;
+    }
+
+    public SignatureAlgorithm getAlgorithm() {
+        return algorithm;
+    }
+
+    /** The key that signs new tokens right now. */
+    public RingKey getActiveKey() {
+        return active;
+    }
+
+    /**
+     * Public key for a "kid" header, or null if no node issued it or it has expired.
+     * Called on every request, so it is a single map lookup; an unknown kid re-reads the shared table
+     * (rate-limited), in case another node has rotated since our last refresh.
+     */
+    public PublicKey findVerificationKey(String kid) {
+        if (kid == null) {
+            return null;
+        }
+        long now = System.currentTimeMillis();
+        RingKey key = keys.get(kid);
+        if (key == null && keyRepository != null) {
+            // One caller per interval wins the CAS and reads the table; everyone else gets "unknown key" right away
+            long last = lastReload.get();
+            if (now - last < UNKNOWN_KID_RELOAD_MS || !lastReload.compareAndSet(last, now)) {
+                return null;
+            }
+            tryReload();
+            key = keys.get(kid);
+        }
+        if (key == null || key.isExpired(now)) {
+            return null;
+        }
+        return key.getPublicKey();
+    }
+
+    /** Current JWKS document ({"keys":[...]}), rebuilt only when the ring changes. */
+    public String getJwksJson() {
+        return jwksJson;
+    }
+
+    /** Strong ETag for the current JWKS document, so caches can revalidate cheaply. */
+    public String getJwksEtag() {
+        return jwksEtag;
+    }
+
+    /**
+     * Pick up other nodes' changes to the shared ring, then rotate if the ACTIVE key has served
+     * app.jwt.rotation.interval-ms (NEXT was created by the last rotation, so its age is that time).
+     * JWKS consumers must cache for less than the rotation interval.
+     */
+    @Scheduled(fixedDelayString = "${app.jwt.rotation.check-interval-ms:60000}",
+            initialDelayString = "${app.jwt.rotation.check-interval-ms:60000}")
+    public void refresh() {
+        if (!isAsymmetric()) {
+            return;
+        }
+        if (keyRepository != null && !tryReload()) {
+            return;
+        }
+        if (keyRepository != null && (active == null || next == null)) {
+            restoreMissingKeys();
+            return;
+        }
+        RingKey currentNext = next;
+        if (currentNext != null && System.currentTimeMillis() - currentNext.getCreatedAt() >= rotationInterval) {
+            rotate();
+        }
+    }
+
+    /** Promote NEXT to ACTIVE, retire the old ACTIVE and pre-publish a fresh NEXT. */
+    public void rotate() {
+        if (!isAsymmetric()) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        long retireAt = now + expiration + clockSkew;
+        if (keyRepository != null) {
+            RingKey currentActive = active;
+            RingKey currentNext = next;
+            if (currentActive == null || currentNext == null) {
+                restoreMissingKeys();
+                return;
+            }
+            // Loses (and changes nothing) if another node rotated first; either way reload shows the result
+            keyRepository.rotate(algorithm.getId(), currentActive.getKid(), currentNext.getKid(),
+                    stored(newKey(now), JwtKeyRepository.NEXT), Instant.ofEpochMilli(retireAt));
+            reload();
+            return;
+        }
+        lock.lock();
+        try {
+            active.retireAt(retireAt);
+            active = next;
+            next = remember(newKey(now));
+            keys.values().removeIf(key -> key.isExpired(now));
+            republish();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Keys currently listed in the JWKS (NEXT, ACTIVE and not-yet-expired RETIRED keys). */
+    public Collection<RingKey> getPublishedKeys() {
+        return List.copyOf(keys.values());
+    }
+
+    // Replaces the in-memory ring with the table's view: NEXT, ACTIVE and the RETIRED keys that still verify
+    private void reload() {
+        long now = System.currentTimeMillis();
+        // The query runs unlocked; only the swap below is serialized
+        List<JwtKeyRepository.StoredKey> rows = keyRepository.findLive(algorithm.getId(), Instant.ofEpochMilli(now));
+        lock.lock();
+        try {
+            if (now >= appliedAt) { // a slower, older read must not replace a newer view
+                apply(rows);
+                appliedAt = now;
+            }
+        } finally {
+            lock.unlock();
+        }
+        lastReload.set(now);
+    }
+
+    private void apply(List<JwtKeyRepository.StoredKey> rows) {
+        Map<String, RingKey> loaded = new HashMap<>();
+        RingKey loadedActive = null;
+        RingKey loadedNext = null;
+        for (JwtKeyRepository.StoredKey stored : rows) {
+            RingKey key = keys.get(stored.kid());
+            if (key == null) {
+                key = ringKey(stored.pair(), stored.createdAt().toEpochMilli());
+            }
+            if (stored.verifyUntil() != null) {
+                key.retireAt(stored.verifyUntil().toEpochMilli());
+            }
+            loaded.put(key.getKid(), key);
+            // Rows come ordered by kid: with spare rows from a racing bootstrap, every node takes the first
+            if (JwtKeyRepository.ACTIVE.equals(stored.state()) && loadedActive == null) {
+                loadedActive = key;
+            } else if (JwtKeyRepository.NEXT.equals(stored.state()) && loadedNext == null) {
+                loadedNext = key;
+            }
+        }
+        keys.putAll(loaded);
+        keys.keySet().retainAll(loaded.keySet());
+        active = loadedActive;
+        next = loadedNext;
+        republish();
+    }
+
+    // A running ring lost its ACTIVE or NEXT row (deleted by hand, say): without it there is nothing to rotate
+    private void restoreMissingKeys() {
+        log.atWarn().setMessage("JWT key ring is missing keys in jwt_signing_keys, creating them")
+                .addKeyValue("active", active != null).addKeyValue("next", next != null).log();
+        createMissingKeys();
+    }
+
+    // Empty table (first start) or a lost ACTIVE/NEXT row: create what is missing, then take the table's view
+    private void createMissingKeys() {
+        if (active != null && next != null) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        if (active == null) {
+            keyRepository.insert(algorithm.getId(), stored(newKey(now), JwtKeyRepository.ACTIVE));
+        }
+        if (next == null) {
+            keyRepository.insert(algorithm.getId(), stored(newKey(now), JwtKeyRepository.NEXT));
+        }
+        reload();
+    }
+
+    // The database being briefly unreachable must not break verification: keep the keys we have
+    private boolean tryReload() {
+        try {
+            reload();
+            return true;
+        } catch (DataAccessException ex) {
+            lastReload.set(System.currentTimeMillis());
+            log.atWarn().setMessage("JWT key ring reload failed, keeping the loaded keys")
+                    .addKeyValue("reason", ex.getMessage()).log();
+            return false;
+        }
+    }
+
+    private RingKey newKey(long now) {
+        return ringKey(algorithm.keyPair().build(), now);
+    }
+
+    private RingKey ringKey(KeyPair pair, long createdAt) {
+        PublicJwk<PublicKey> jwk = Jwks.builder()
+                .key(pair.getPublic())
+                .algorithm(algorithm.getId())
+                .publicKeyUse("sig")
+                .idFromThumbprint()   // RFC 7638: kid derived from the key itself
+                .build();
+        return new RingKey(jwk.getId(), pair, jwk, createdAt);
+    }
+
+    private RingKey remember(RingKey key) {
+        keys.put(key.getKid(), key);
+        return key;
+    }
+
+    private static JwtKeyRepository.StoredKey stored(RingKey key, String state) {
+        return new JwtKeyRepository.StoredKey(key.getKid(), state, key.pair, Instant.ofEpochMilli(key.createdAt), null);
+    }
+
+    private void republish() {
+        List<String> entries = new ArrayList<>();
+        for (RingKey key : keys.values()) {
+            entries.add(Jwks.json(key.jwk));
+        }
+        String json = "{\"keys\":[" + String.join(",", entries) + "]}";
+        jwksEtag = "\"" + Integer.toHexString(json.hashCode()) + "\"";
+        jwksJson = json;
+    }
+
+    private static SignatureAlgorithm resolveAlgorithm(String name) {
+        switch (name.trim().toUpperCase()) {
+            case "HS256":
+                return null;
+            case "ES256":
+                return Jwts.SIG.ES256;
+            case "EDDSA":
+                return Jwts.SIG.EdDSA;
+            default:
+                throw new IllegalStateException("Unsupported app.jwt.algorithm: " + name
+                        + " (expected HS256, ES256 or EdDSA)");
+        }
+    }
+
+    /** One key pair in the ring. */
+    public static final class RingKey {
+        private final String kid;
+        private final KeyPair pair;
+        private final PublicJwk<PublicKey> jwk;
+        private final long createdAt;
+        private volatile long verifyUntil = Long.MAX_VALUE; // set when the key is retired
+
+        RingKey(String kid, KeyPair pair, PublicJwk<PublicKey> jwk, long createdAt) {
+            this.kid = kid;
+            this.pair = pair;
+            this.jwk = jwk;
+            this.createdAt = createdAt;
+        }
+
+        public String getKid() {
+            return kid;
+        }
+
+        public PrivateKey getPrivateKey() {
+            return pair.getPrivate();
+        }
+
+        public PublicKey getPublicKey() {
+            return pair.getPublic();
+        }
+
+        long getCreatedAt() {
+            return createdAt;
+        }
+
+        void retireAt(long epochMs) {
+            this.verifyUntil = epochMs;
+        }
+
+        boolean isExpired(long nowMs) {
+            return nowMs > verifyUntil;
+        }
+    }
+}
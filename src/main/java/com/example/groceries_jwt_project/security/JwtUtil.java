@@ -1,49 +1,78 @@
 package com.example.groceries_jwt_project.security;
 
 import java.nio.charset.StandardCharsets;
+import java.security.Key;
+import java.security.PublicKey;
 import java.util.Date;
+import java.util.UUID;
 import javax.crypto.SecretKey;
 
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Component;
 
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtBuilder;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.LocatorAdapter;
 import io.jsonwebtoken.io.DecodingException;
+import io.jsonwebtoken.security.InvalidKeyException;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.annotation.Timed;
 import jakarta.annotation.PostConstruct;
 
 /**
  * JwtUtil:
  *  - Handles creation and validation of JWT tokens.
- *  - Uses HS256 (HMAC with SHA-256) for signing — same secret used for verify.
+ *  - Default: HS256 (HMAC with SHA-256) — same secret used for sign and verify.
+ *  - app.jwt.algorithm=ES256 / EdDSA: signs with the JwtKeyRing's active private key,
+ *    puts its id in the "kid" header and verifies with the matching public key.
  *
  * Teaching points:
  *  - JWTs are SIGNED, not ENCRYPTED (never store passwords in them).
  *  - The secret key must be ≥ 32 bytes for HS256.
- *  - The same key is reused for signing and verifying.
+ *  - With HS256 the same key is reused for signing and verifying.
+ *  - With ES256/EdDSA verifiers only need our public keys (see /.well-known/jwks.json).
  */
 @Component
 public class JwtUtil {
 
-    // Secret used to sign and verify tokens (from application.properties)
-    @Value("${app.jwt.secret}")
+    // Secret used to sign and verify HS256 tokens (from application.properties)
+    @Value("${app.jwt.secret:}")
     private String secret;
 
     // Token lifetime (milliseconds)
     @Value("${app.jwt.expiration-ms}")
     private long expiration;
 
+    // Asymmetric keys (only used when app.jwt.algorithm is ES256 / EdDSA)
+    @Autowired
+    private JwtKeyRing keyRing;
+
     // Cached SecretKey so we don’t rebuild it each time
     private SecretKey signingKey;
 
+    // Parsers are immutable and thread-safe → build once, reuse for every request
+    private JwtParser parser;
+
     /**
-     * Initialize the signing key once at startup.
+     * Initialize the signing key and parser once at startup.
+     *  - Asymmetric mode → look up the public key by the token's "kid" header.
      *  - If the secret looks like Base64 → decode it.
      *  - Otherwise → use it as plain text.
      */
     @PostConstruct
     void initKey() {
+        if (keyRing.isAsymmetric()) {
+            this.parser = Jwts.parser()
+                    .keyLocator(new KidLocator())
+                    .build();
+            return;
+        }
+
         byte[] keyBytes;
         try {
             // Try to decode as Base64 (some people store secrets that way)
@@ -55,6 +84,9 @@ public class JwtUtil {
 
         // JJWT enforces ≥ 32 bytes or it throws IllegalArgumentException
         this.signingKey = Keys.hmacShaKeyFor(keyBytes);
+        this.parser = Jwts.parser()
+                .verifyWith(signingKey)
+                .build();
     }
 
     /**
@@ -62,41 +94,69 @@ public class JwtUtil {
      *
      * Flow:
      *  1) Take username from Authentication (the subject).
-     *  2) Set issuedAt and expiration.
-     *  3) Sign with our cached key.
+     *  2) Set a unique id ("jti", used for revocation), issuedAt and expiration.
+     *  3) Sign with our cached key (or the key ring's active key + "kid" header).
      *  4) Return compact string (HEADER.PAYLOAD.SIGNATURE).
      */
+    @Timed(value = "security.jwt.generate", histogram = true, percentiles = {0.5, 0.95, 0.99})
     public String generateToken(Authentication authentication) {
         String username = authentication.getName();     // "sub" claim
         Date now = new Date();
         Date expiry = new Date(now.getTime() + expiration);
 
-        return Jwts.builder()
+        JwtBuilder builder = Jwts.builder()
+                .id(UUID.randomUUID().toString())
                 .subject(username)
                 .issuedAt(now)
-                .expiration(expiry)
-                .signWith(signingKey)                   // uses HS256 automatically
-                .compact();
+                .expiration(expiry);
+
+        if (keyRing.isAsymmetric()) {
+            JwtKeyRing.RingKey key = keyRing.getActiveKey();
+            builder.header().keyId(key.getKid()).and()
+                    .signWith(key.getPrivateKey(), keyRing.getAlgorithm());
+        } else {
+            builder.signWith(signingKey);               // uses HS256 automatically
+        }
+        return builder.compact();
     }
 
     /**
      * Verify and extract username ("sub") from the token.
-     *  - verifyWith(signingKey) ensures integrity and authenticity.
-     *  - Throws if token is expired or tampered.
+     *  - The cached parser checks the signature (integrity and authenticity).
+     *  - Throws if token is expired, tampered, or signed by a key we don't know.
      */
     public String extractUsername(String token) {
-        return Jwts.parser()
-                .verifyWith(signingKey)
-                .build()
+        return parseClaims(token).getSubject();
+    }
+
+    /**
+     * Verify the token and return all its claims (sub, jti, exp, ...) from a single parse.
+     *  - Same checks as extractUsername().
+     *  - Timed as security.jwt.verify (this is the per-request JWT cost).
+     */
+    @Timed(value = "security.jwt.verify", histogram = true, percentiles = {0.5, 0.95, 0.99})
+    public Claims parseClaims(String token) {
+        return parser
                 .parseSignedClaims(token)
-                .getPayload()
-                .getSubject();
+                .getPayload();
     }
 
     /** Convenience helper — when new tokens issued now will expire (epoch ms). */
     public long getExpirationInstantMs() {
         return System.currentTimeMillis() + expiration;
     }
+
+    /** Resolves the verification key from the "kid" header against the key ring. */
+    private class KidLocator extends LocatorAdapter<Key> {
+        @Override
+        protected Key locate(JwsHeader header) {
+            PublicKey key = keyRing.findVerificationKey(header.getKeyId());
+            if (key == null) {
+                throw new InvalidKeyException("Unknown or expired signing key: " + header.getKeyId());
+            }
+            return key;
+        }
+    }
 }
 
 //Base64 is a way to represent binary data (like bytes) in a 
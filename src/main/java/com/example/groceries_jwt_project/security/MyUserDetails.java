@@ -24,6 +24,10 @@ public class MyUserDetails implements UserDetails{
 	public Collection<? extends GrantedAuthority> getAuthorities(){
 		return List.of(new SimpleGrantedAuthority(user.getRole()));
 	}
+	// Database id of the user (carts are keyed by it)
+	public Long getId() {
+		return user.getId();
+	}
 	@Override
 	public String getPassword() {
 		return user.getPassword();
@@ -1,5 +1,7 @@
 package com.example.groceries_jwt_project.security;
 
+import java.util.Optional;
+
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
@@ -7,20 +9,31 @@ import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Component;
 
 import com.example.groceries_jwt_project.entity.User;
+import com.example.groceries_jwt_project.exception.UserNotFoundException;
+import com.example.groceries_jwt_project.jfr.UserLookupEvent;
 import com.example.groceries_jwt_project.repository.UserRepository;
 
+import io.micrometer.core.annotation.Timed;
+
 @Component
 public class MyUserDetailsService implements UserDetailsService {
 
 	@Autowired
 	private UserRepository userRepository;
 	@Override
+	@Timed(value = "security.user.lookup", histogram = true, percentiles = { 0.5, 0.95, 0.99 })
 	public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-		// TODO Auto-generated method stub
-		User user = userRepository.findByUsername(username)
-				.orElseThrow(()->new
-						UsernameNotFoundException("User not found!"));
-		return new MyUserDetails(user);
+		// JFR event: recorded only while a recording is running and the lookup is slow
+		UserLookupEvent event = new UserLookupEvent();
+		event.begin();
+		Optional<User> user = userRepository.findByUsername(username);
+		event.end();
+		if (event.shouldCommit()) {
+			event.found = user.isPresent();
+			event.commit();
+		}
+		return new MyUserDetails(user.orElseThrow(()->new
+						UserNotFoundException("User not found!")));
 	}
 
 }
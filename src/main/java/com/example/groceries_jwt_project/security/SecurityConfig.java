@@ -4,6 +4,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
@@ -14,6 +15,7 @@ import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.HttpStatusEntryPoint;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
 /**
@@ -93,6 +95,12 @@ public class SecurityConfig {
                     "/swagger-ui/**"
                 ).permitAll()
 
+                // Public verification keys (ES256/EdDSA mode) for other nodes and edge services
+                .requestMatchers(HttpMethod.GET, "/.well-known/jwks.json").permitAll()
+
+                // Probes and Prometheus scraping (other actuator endpoints still need a JWT)
+                .requestMatchers(HttpMethod.GET, "/actuator/health/**", "/actuator/prometheus").permitAll()
+
 
                 // Optional: make product GETs public for demo/catalog browsing
                 .requestMatchers(HttpMethod.GET, "/api/groceries/**").permitAll()
@@ -103,10 +111,17 @@ public class SecurityConfig {
                 .requestMatchers(HttpMethod.PUT, "/api/groceries/**").hasRole("ADMIN")
                 .requestMatchers(HttpMethod.DELETE, "/api/groceries/**").hasRole("ADMIN")
 
+                // Operational/admin endpoints (JFR recordings, ...) are ADMIN only
+                .requestMatchers("/api/admin/**").hasRole("ADMIN")
+
                 // Everything else requires the user to be authenticated (valid JWT)
                 .anyRequest().authenticated()
             )
 
+            // No (valid) token → 401, not Spring's default 403: missing, expired, tampered and
+            // revoked (logged out) tokens all end here, 403 stays for "authenticated but wrong role"
+            .exceptionHandling(ex -> ex.authenticationEntryPoint(new HttpStatusEntryPoint(HttpStatus.UNAUTHORIZED)))
+
             // Tell Spring to use our DB-backed authentication (DaoAuthenticationProvider)
             .authenticationProvider(authProvider())
 
@@ -0,0 +1,118 @@
+package com.example.groceries_jwt_project.security;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.example.groceries_jwt_project.entity.RevokedToken;
+import com.example.groceries_jwt_project.repository.RevokedTokenRepository;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * TokenRevocationService:
+ *  - Remembers revoked token ids ("jti") until the token would have expired anyway.
+ *  - isRevoked() runs on EVERY authenticated request, so it never touches the DB:
+ *      1) Bloom filter says "definitely not revoked" → done (the common case).
+ *      2) Filter says "maybe" → confirm against the exact in-memory map.
+ *  - Every revocation is also written to revoked_tokens, so restarts (and other nodes,
+ *    on their next refresh) see it.
+ *
+ * A Bloom filter cannot forget entries, so refresh() periodically rebuilds the filter
+ * from the rows that are still live and drops the expired ones.
+ */
+@Component
+@RequiredArgsConstructor
+public class TokenRevocationService {
+
+    private final RevokedTokenRepository revokedTokenRepository;
+
+    // Filter is sized for this many live revocations (it grows on refresh if exceeded)
+    @Value("${app.jwt.revocation.expected-entries:100000}")
+    private int expectedEntries;
+
+    // Share of non-revoked tokens that need the exact-map lookup
+    @Value("${app.jwt.revocation.false-positive-rate:0.01}")
+    private double falsePositiveRate;
+
+    // Filter + exact map are swapped together so readers never see half of a rebuild
+    private volatile State state;
+
+    // Serializes writers (revoke vs. refresh); readers stay lock-free
+    private final ReentrantLock writeLock = new ReentrantLock();
+
+    @PostConstruct
+    void load() {
+        refresh();
+    }
+
+    /** Revoke a token id until the given expiry. Idempotent. */
+    public void revoke(String jti, Instant expiresAt) {
+        if (jti == null || !expiresAt.isAfter(Instant.now())) {
+            return; // nothing to do for tokens without an id or already expired
+        }
+        revokedTokenRepository.save(new RevokedToken(jti, expiresAt));
+        writeLock.lock();
+        try {
+            state.add(jti, expiresAt.toEpochMilli());
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /** true if the token id was revoked and the revocation has not aged out yet. */
+    public boolean isRevoked(String jti) {
+        if (jti == null) {
+            return false;
+        }
+        State current = state;
+        if (!current.filter.mightContain(jti)) {
+            return false;
+        }
+        Long expiresAt = current.exact.get(jti);
+        return expiresAt != null && expiresAt > System.currentTimeMillis();
+    }
+
+    /**
+     * Drop expired rows, reload the live ones and rebuild the filter.
+     * Also picks up revocations made by other nodes since the last refresh.
+     */
+    @Scheduled(fixedDelayString = "${app.jwt.revocation.refresh-interval-ms:60000}",
+            initialDelayString = "${app.jwt.revocation.refresh-interval-ms:60000}")
+    public void refresh() {
+        Instant now = Instant.now();
+        writeLock.lock();
+        try {
+            revokedTokenRepository.deleteExpired(now);
+            List<RevokedToken> live = revokedTokenRepository.findByExpiresAtAfter(now);
+            State rebuilt = new State(Math.max(expectedEntries, live.size() * 2), falsePositiveRate);
+            for (RevokedToken token : live) {
+                rebuilt.add(token.getJti(), token.getExpiresAt().toEpochMilli());
+            }
+            state = rebuilt;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private static final class State {
+        private final BloomFilter filter;
+        private final Map<String, Long> exact = new ConcurrentHashMap<>();
+
+        State(int capacity, double falsePositiveRate) {
+            this.filter = new BloomFilter(capacity, falsePositiveRate);
+        }
+
+        void add(String jti, long expiresAtMs) {
+            exact.put(jti, expiresAtMs); // exact first: a filter hit must always find the entry
+            filter.add(jti);
+        }
+    }
+}
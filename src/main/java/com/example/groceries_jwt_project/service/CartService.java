@@ -1,73 +1,132 @@
 package com.example.groceries_jwt_project.service;
 
+import com.example.groceries_jwt_project.datasource.ReadYourWrites;
 import com.example.groceries_jwt_project.entity.Cart;
 import com.example.groceries_jwt_project.entity.Groceries;
+import com.example.groceries_jwt_project.exception.NotFoundException;
+import com.example.groceries_jwt_project.jfr.CheckoutEvent;
+import com.example.groceries_jwt_project.metrics.CheckoutMetrics;
 import com.example.groceries_jwt_project.repository.CartRepository;
 import com.example.groceries_jwt_project.repository.GroceriesRepository;
+import com.example.groceries_jwt_project.security.MyUserDetails;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
 
 @Service
 @RequiredArgsConstructor
+@Timed(value = "cart.service", histogram = true, percentiles = {0.5, 0.95, 0.99})
 public class CartService {
 
     private final CartRepository cartRepository;
     private final GroceriesRepository groceriesRepository;
+    private final StockService stockService;
+    private final CheckoutMetrics checkoutMetrics;
+    private final ReadYourWrites readYourWrites;
+    private final ApplicationEventPublisher eventPublisher;
 
     // Add item to cart
     public void addItem(Long productId, int quantity) {
         Groceries product = groceriesRepository.findById(productId)
-                .orElseThrow(() -> new RuntimeException("Product not found"));
+                .orElseThrow(() -> NotFoundException.product(productId));
 
         double totalPrice = product.getPrice() * quantity;
 
         Cart cart = Cart.builder()
-                .userId(getCurrentUserId()) // ✅ Extract from JWT later
+                .userId(getCurrentUserId()) // ✅ From the JWT-authenticated principal
                 .productId(productId)
                 .quantity(quantity)
                 .totalPrice(totalPrice)
                 .build();
 
         cartRepository.save(cart);
+        readYourWrites.recordWrite(cart.getUserId());
     }
 
-    // Get all cart items for current user
+    // Get all cart items for current user (read-only: a replica, or the primary right after this user's own cart writes)
+    @Transactional(readOnly = true)
     public List<Cart> getCartItems() {
         return cartRepository.findByUserId(getCurrentUserId());
     }
 
-    // Remove item from cart
+    // Remove item from the current user's cart; another user's line is "not found" like a missing one
+    @Transactional
     public void removeItem(Long itemId) {
-        if (!cartRepository.existsById(itemId)) {
-            throw new RuntimeException("Cart item not found");
+        Long userId = getCurrentUserId();
+        if (cartRepository.deleteByIdAndUserId(itemId, userId) == 0) {
+            throw NotFoundException.cartItem(itemId);
         }
-        cartRepository.deleteById(itemId);
+        readYourWrites.recordWrite(userId);
     }
 
-    // Checkout logic (reduce stock + clear cart)
+    // Checkout logic (claim cart + reduce stock), all-or-nothing in one transaction
+    // Each stage is timed separately (cart.checkout.stage); the whole call is a JFR CheckoutEvent
+    @Transactional
     public boolean checkout() {
-        List<Cart> cartItems = getCartItems();
-        if (cartItems.isEmpty()) return false;
+        CheckoutEvent event = new CheckoutEvent();
+        event.begin();
+        boolean success = false;
+        int lines = 0;
+        try {
+            long start = System.nanoTime();
+            List<Cart> cartItems = getCartItems();
+            checkoutMetrics.recordLoadCart(System.nanoTime() - start);
+            lines = cartItems.size();
+            success = !cartItems.isEmpty() && checkout(cartItems);
+            return success;
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.userId = getCurrentUserId();
+                event.lines = lines;
+                event.success = success;
+                event.commit();
+            }
+        }
+    }
 
+    private boolean checkout(List<Cart> cartItems) {
+        // 1) Claim the cart by deleting its lines. A second checkout of the same cart blocks on these
+        //    rows, then deletes nothing and aborts, so a cart is never paid for twice.
+        long start = System.nanoTime();
+        List<Long> ids = cartItems.stream().map(Cart::getId).toList();
+        if (cartRepository.deleteByIdIn(ids) != ids.size()) {
+            throw new ConcurrencyFailureException("Cart was already checked out");
+        }
+        checkoutMetrics.recordClaimCart(System.nanoTime() - start);
+
+        // 2) One decrement per product, in id order: concurrent checkouts lock rows in the same
+        //    order and cannot deadlock. Any failure rolls back the claim and earlier decrements.
+        start = System.nanoTime();
+        Map<Long, Integer> quantities = new TreeMap<>();
         for (Cart item : cartItems) {
-            Groceries product = groceriesRepository.findById(item.getProductId())
-                    .orElseThrow(() -> new RuntimeException("Product not found"));
-            if (product.getQuantity() < item.getQuantity()) {
-                throw new RuntimeException("Insufficient stock for product: " + product.getName());
-            }
-            product.setQuantity(product.getQuantity() - item.getQuantity());
-            groceriesRepository.save(product);
+            quantities.merge(item.getProductId(), item.getQuantity(), Integer::sum);
         }
+        quantities.forEach(stockService::decrement);
+        checkoutMetrics.recordDecrement(System.nanoTime() - start);
+        readYourWrites.recordWrite(cartItems.get(0).getUserId());
 
-        cartRepository.deleteAll(cartItems);
+        // 3) Listeners (recommendations) see the basket once the transaction has committed
+        eventPublisher.publishEvent(new CheckoutCompletedEvent(cartItems.get(0).getUserId(),
+                List.copyOf(quantities.keySet())));
         return true;
     }
 
-    // ✅ Placeholder for JWT-based user extraction
+    // ✅ Current user's id from the principal JwtAuthFilter put into the SecurityContext
     private Long getCurrentUserId() {
-        // TODO: Extract userId from JWT token using SecurityContext
-        return 1L; // Hardcoded for now
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof MyUserDetails user) {
+            return user.getId();
+        }
+        throw new IllegalStateException("No authenticated user");
     }
 }
\ No newline at end of file
@@ -0,0 +1,13 @@
+package com.example.groceries_jwt_project.service;
+
+import java.util.List;
+
+/**
+ * Published by CartService.checkout inside its transaction.
+ * Listeners that need the basket to be final use @TransactionalEventListener (after commit).
+ *
+ * @param userId     who checked out
+ * @param productIds distinct products of the basket, in id order
+ */
+public record CheckoutCompletedEvent(Long userId, List<Long> productIds) {
+}
@@ -1,59 +1,94 @@
 package com.example.groceries_jwt_project.service;
 
+import com.example.groceries_jwt_project.CacheConfig;
+import com.example.groceries_jwt_project.audit.AuditAction;
+import com.example.groceries_jwt_project.audit.AuditEvent;
+import com.example.groceries_jwt_project.audit.AuditTrail;
 import com.example.groceries_jwt_project.entity.Groceries;
+import com.example.groceries_jwt_project.exception.NotFoundException;
 import com.example.groceries_jwt_project.repository.GroceriesRepository;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 
 @Service
 @RequiredArgsConstructor
+@Timed(value = "groceries.service", histogram = true, percentiles = {0.5, 0.95, 0.99})
 public class GroceriesService {
 
     private final GroceriesRepository groceriesRepository;
+    private final StockService stockService;
+    private final AuditTrail auditTrail;
+    private final ApplicationEventPublisher eventPublisher;
 
     // Save new grocery item
     public Groceries save(Groceries grocery) {
-        return groceriesRepository.save(grocery);
+        Groceries saved = groceriesRepository.save(grocery);
+        audit(AuditAction.PRODUCT_CREATED, saved.getId());
+        eventPublisher.publishEvent(StockMovementEvent.set(saved.getId(), saved.getQuantity()));
+        return saved;
     }
 
-    // Get all groceries
+    // Get all groceries (read-only: served by a replica when replicas are configured)
+    @Transactional(readOnly = true)
     public List<Groceries> getAll() {
         return groceriesRepository.findAll();
     }
 
-    // Find grocery by ID
+    // Find grocery by ID (cached; the warm-up preloads the most wanted products).
+    // Not read-only on purpose: a miss fills the cache for 10 minutes, so it must read the primary,
+    // not a replica that may not have caught up with the update or decrement that evicted the entry
+    @Cacheable(cacheNames = CacheConfig.GROCERIES, key = "#id")
+    @Transactional
     public Groceries findById(Long id) {
         return groceriesRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Grocery item not found with ID: " + id));
+                .orElseThrow(() -> NotFoundException.product(id));
     }
 
-    // Update grocery item
+    // Update grocery item (one transaction: the loaded entity is updated in place, no second select)
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.GROCERIES, key = "#id")
     public Groceries update(Long id, Groceries updatedGrocery) {
         Groceries existing = findById(id);
         existing.setName(updatedGrocery.getName());
         existing.setDescription(updatedGrocery.getDescription());
         existing.setPrice(updatedGrocery.getPrice());
         existing.setQuantity(updatedGrocery.getQuantity());
-        return groceriesRepository.save(existing);
+        Groceries saved = groceriesRepository.save(existing);
+        audit(AuditAction.PRODUCT_UPDATED, id); // enqueued after commit
+        eventPublisher.publishEvent(StockMovementEvent.set(id, saved.getQuantity()));
+        return saved;
     }
 
     // Delete grocery item
+    @CacheEvict(cacheNames = CacheConfig.GROCERIES, key = "#id")
     public void delete(Long id) {
         if (!groceriesRepository.existsById(id)) {
-            throw new RuntimeException("Grocery item not found with ID: " + id);
+            throw NotFoundException.product(id);
         }
         groceriesRepository.deleteById(id);
+        audit(AuditAction.PRODUCT_DELETED, id);
+        eventPublisher.publishEvent(StockMovementEvent.removed(id));
     }
 
-    // Reduce stock after purchase
+    // Admin catalog change → audit trail (asynchronous, see AuditTrail)
+    private void audit(AuditAction action, Long productId) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        String actor = authentication != null ? authentication.getName() : null;
+        auditTrail.publish(AuditEvent.success(action, actor, "product:" + productId));
+    }
+
+    // Reduce stock after purchase (atomic, see StockService)
+    @Transactional
     public void reduceStock(Long id, int quantity) {
-        Groceries grocery = findById(id);
-        if (grocery.getQuantity() < quantity) {
-            throw new RuntimeException("Insufficient stock for product: " + grocery.getName());
-        }
-        grocery.setQuantity(grocery.getQuantity() - quantity);
-        groceriesRepository.save(grocery);
+        stockService.decrement(id, quantity);
     }
 }
\ No newline at end of file
@@ -0,0 +1,27 @@
+package com.example.groceries_jwt_project.service;
+
+/**
+ * A change to a product's stock, published inside the transaction that makes it.
+ * Listeners that must not see rolled-back changes use @TransactionalEventListener (after commit).
+ *
+ * @param productId the product
+ * @param type      SOLD: quantity units left the shelf; SET: quantity is the new stock level
+ *                  (product created or edited); REMOVED: the product was deleted (quantity 0)
+ * @param quantity  units sold, or the new level
+ */
+public record StockMovementEvent(Long productId, Type type, int quantity) {
+
+    public enum Type { SOLD, SET, REMOVED }
+
+    public static StockMovementEvent sold(Long productId, int units) {
+        return new StockMovementEvent(productId, Type.SOLD, units);
+    }
+
+    public static StockMovementEvent set(Long productId, int quantity) {
+        return new StockMovementEvent(productId, Type.SET, quantity);
+    }
+
+    public static StockMovementEvent removed(Long productId) {
+        return new StockMovementEvent(productId, Type.REMOVED, 0);
+    }
+}
@@ -0,0 +1,123 @@
+package com.example.groceries_jwt_project.service;
+
+import com.example.groceries_jwt_project.CacheConfig;
+import com.example.groceries_jwt_project.entity.Groceries;
+import com.example.groceries_jwt_project.exception.InsufficientStockException;
+import com.example.groceries_jwt_project.exception.NotFoundException;
+import com.example.groceries_jwt_project.repository.GroceriesRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+/**
+ * Single place that decrements Groceries.quantity, so checkout and reduceStock can never oversell.
+ *
+ * The locking strategy is chosen with app.stock.locking:
+ *  - conditional (default): one guarded UPDATE ... WHERE quantity >= :q. No read, no retry.
+ *  - pessimistic: SELECT ... FOR UPDATE, check, then write. Concurrent buyers queue on the row lock.
+ *  - optimistic: read, then compare-and-set UPDATE ... WHERE quantity = :expected, retried on conflict.
+ *
+ * Always called inside the caller's transaction (MANDATORY): row locks taken here are held until
+ * the whole checkout commits or rolls back. The cached product is evicted once that commit happens,
+ * and a StockMovementEvent (SOLD) is published for listeners that track sales.
+ */
+@Service
+public class StockService {
+
+    public enum Locking { CONDITIONAL, PESSIMISTIC, OPTIMISTIC }
+
+    private final GroceriesRepository groceriesRepository;
+    private final Cache productCache;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Counter retries;
+    private final Counter rejected;
+
+    @Value("${app.stock.locking:conditional}")
+    private Locking locking;
+
+    // Compare-and-set attempts per line before giving up with OptimisticLockingFailureException
+    @Value("${app.stock.optimistic.max-attempts:5}")
+    private int maxAttempts;
+
+    public StockService(GroceriesRepository groceriesRepository, CacheManager cacheManager,
+                        ApplicationEventPublisher eventPublisher, MeterRegistry meterRegistry) {
+        this.groceriesRepository = groceriesRepository;
+        this.productCache = cacheManager.getCache(CacheConfig.GROCERIES);
+        this.eventPublisher = eventPublisher;
+        this.retries = Counter.builder("stock.decrement.retries")
+                .description("Optimistic compare-and-set attempts that lost a race and were retried")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("stock.decrement.rejected")
+                .description("Decrements refused because the product did not have enough stock")
+                .register(meterRegistry);
+    }
+
+    // Remove quantity units of the product, or throw (and let the caller's transaction roll back)
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void decrement(Long productId, int quantity) {
+        switch (locking) {
+            case CONDITIONAL -> decrementConditional(productId, quantity);
+            case PESSIMISTIC -> decrementPessimistic(productId, quantity);
+            case OPTIMISTIC -> decrementOptimistic(productId, quantity);
+        }
+        productCache.evict(productId); // deferred until commit (transaction-aware cache)
+        eventPublisher.publishEvent(StockMovementEvent.sold(productId, quantity)); // inventory rollups, after commit
+    }
+
+    public Locking getLocking() {
+        return locking;
+    }
+
+    private void decrementConditional(Long productId, int quantity) {
+        if (groceriesRepository.decrementIfAvailable(productId, quantity, LocalDateTime.now()) == 0) {
+            // Failure path only: find out which of the two reasons it was
+            Groceries product = groceriesRepository.findById(productId)
+                    .orElseThrow(() -> NotFoundException.product(productId));
+            throw insufficientStock(productId, product.getName());
+        }
+    }
+
+    private void decrementPessimistic(Long productId, int quantity) {
+        Groceries product = groceriesRepository.findByIdForUpdate(productId)
+                .orElseThrow(() -> NotFoundException.product(productId));
+        if (product.getQuantity() < quantity) {
+            throw insufficientStock(productId, product.getName());
+        }
+        product.setQuantity(product.getQuantity() - quantity);
+        groceriesRepository.save(product);
+    }
+
+    private void decrementOptimistic(Long productId, int quantity) {
+        for (int attempt = 1; attempt <= maxAttempts; attempt++) {
+            int current = groceriesRepository.findQuantityById(productId)
+                    .orElseThrow(() -> NotFoundException.product(productId));
+            if (current < quantity) {
+                // Failure path only: the loop itself reads just the quantity
+                String name = groceriesRepository.findById(productId).map(Groceries::getName)
+                        .orElseThrow(() -> NotFoundException.product(productId));
+                throw insufficientStock(productId, name);
+            }
+            if (groceriesRepository.compareAndSetQuantity(productId, current, current - quantity,
+                    LocalDateTime.now()) == 1) {
+                return;
+            }
+            retries.increment();
+        }
+        throw new OptimisticLockingFailureException(
+                "Stock for product " + productId + " kept changing; gave up after " + maxAttempts + " attempts");
+    }
+
+    private InsufficientStockException insufficientStock(Long productId, String product) {
+        rejected.increment();
+        return new InsufficientStockException(productId, product);
+    }
+}
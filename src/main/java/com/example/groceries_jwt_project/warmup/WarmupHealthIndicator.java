@@ -0,0 +1,25 @@
+package com.example.groceries_jwt_project.warmup;
+
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * "warmup" health contributor: OUT_OF_SERVICE until WarmupService has finished, then UP.
+ * It is part of the readiness group (management.endpoint.health.group.readiness.include),
+ * so /actuator/health/readiness only turns UP once the pool, cache, JWT and JSON paths are warm.
+ */
+@Component("warmup")
+@RequiredArgsConstructor
+public class WarmupHealthIndicator implements HealthIndicator {
+
+    private final WarmupService warmupService;
+
+    @Override
+    public Health health() {
+        Health.Builder builder = warmupService.isDone() ? Health.up() : Health.outOfService();
+        return builder.withDetails(warmupService.getDetails()).build();
+    }
+}
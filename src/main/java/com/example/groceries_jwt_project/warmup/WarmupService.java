@@ -0,0 +1,221 @@
+package com.example.groceries_jwt_project.warmup;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.stereotype.Component;
+
+import com.example.groceries_jwt_project.CacheConfig;
+import com.example.groceries_jwt_project.entity.Cart;
+import com.example.groceries_jwt_project.entity.Groceries;
+import com.example.groceries_jwt_project.repository.CartRepository;
+import com.example.groceries_jwt_project.repository.GroceriesRepository;
+import com.example.groceries_jwt_project.security.JwtUtil;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.zaxxer.hikari.HikariDataSource;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Warm-up before readiness. Runs once, in the background, after the application has started:
+ *  1) connection_pool: open the Hikari pool up to minimumIdle
+ *  2) catalog: preload the most wanted products into the "groceries" cache
+ *     (most carts first, topped up with the most recently updated)
+ *  3) jwt: generate + verify tokens through JwtUtil
+ *  4) json: serialize/deserialize the controllers' response types with Boot's ObjectMapper
+ * Until it finishes, WarmupHealthIndicator keeps the readiness probe OUT_OF_SERVICE.
+ * Stage timings: app.warmup.stage{stage=...} timers and the "warmup" health details.
+ */
+@Component
+@RequiredArgsConstructor
+public class WarmupService {
+
+    private static final Logger log = LoggerFactory.getLogger(WarmupService.class);
+
+    private final DataSource dataSource;
+    private final CartRepository cartRepository;
+    private final GroceriesRepository groceriesRepository;
+    private final CacheManager cacheManager;
+    private final JwtUtil jwtUtil;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.warmup.enabled:true}")
+    private boolean enabled;
+
+    // How many products to put into the cache
+    @Value("${app.warmup.preload-size:500}")
+    private int preloadSize;
+
+    // Time spent exercising hot paths for the JIT, split between the jwt and json stages
+    @Value("${app.warmup.jit-duration-ms:5000}")
+    private long jitDurationMs;
+
+    private final Map<String, Long> stageMillis = Collections.synchronizedMap(new LinkedHashMap<>());
+    private volatile String currentStage = "pending";
+    private volatile boolean done;
+    private volatile String failure;
+    private volatile int preloaded;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            done = true;
+            return;
+        }
+        Thread thread = new Thread(this::run, "warmup");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    public boolean isDone() {
+        return done;
+    }
+
+    /** Stage → milliseconds, plus state/progress for the health endpoint. */
+    public Map<String, Object> getDetails() {
+        Map<String, Object> details = new LinkedHashMap<>();
+        details.put("state", !enabled ? "disabled" : done ? "done" : currentStage);
+        synchronized (stageMillis) {
+            details.put("stagesMs", new LinkedHashMap<>(stageMillis));
+        }
+        details.put("preloadedProducts", preloaded);
+        if (failure != null) {
+            details.put("failure", failure);
+        }
+        return details;
+    }
+
+    private void run() {
+        long start = System.nanoTime();
+        try {
+            stage("connection_pool", this::openPool);
+            stage("catalog", this::preloadCatalog);
+            stage("jwt", this::exerciseJwt);
+            stage("json", this::exerciseJson);
+        } catch (Exception ex) {
+            // A failed warm-up must not keep the node out of rotation forever: serve cold instead
+            failure = ex.getClass().getSimpleName() + ": " + ex.getMessage();
+            log.atWarn().setMessage("Warm-up failed, continuing cold")
+                    .addKeyValue("stage", currentStage).addKeyValue("reason", failure).log();
+        } finally {
+            done = true;
+            log.atInfo().setMessage("Warm-up finished")
+                    .addKeyValue("durationMs", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start))
+                    .addKeyValue("stagesMs", stageMillis)
+                    .log();
+        }
+    }
+
+    private void stage(String name, WarmupStage body) throws Exception {
+        currentStage = name;
+        long start = System.nanoTime();
+        body.run();
+        long nanos = System.nanoTime() - start;
+        stageMillis.put(name, TimeUnit.NANOSECONDS.toMillis(nanos));
+        Timer.builder("app.warmup.stage")
+                .description("Time spent in each startup warm-up stage")
+                .tag("stage", name)
+                .register(meterRegistry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    // Borrow minimumIdle connections at once, so Hikari has really opened them before traffic arrives
+    private void openPool() throws SQLException {
+        int target = 1;
+        if (dataSource.isWrapperFor(HikariDataSource.class)) {
+            HikariDataSource hikari = dataSource.unwrap(HikariDataSource.class);
+            target = Math.min(hikari.getMinimumIdle(), hikari.getMaximumPoolSize());
+        }
+        List<Connection> connections = new ArrayList<>(target);
+        try {
+            for (int i = 0; i < target; i++) {
+                connections.add(dataSource.getConnection());
+            }
+        } finally {
+            for (Connection connection : connections) {
+                connection.close();
+            }
+        }
+    }
+
+    private void preloadCatalog() {
+        Set<Long> ids = new LinkedHashSet<>(cartRepository.findMostWantedProductIds(PageRequest.of(0, preloadSize)));
+        List<Groceries> products = new ArrayList<>(groceriesRepository.findAllById(ids));
+        if (products.size() < preloadSize) {
+            for (Groceries recent : groceriesRepository.findAllByOrderByUpdatedAtDesc(PageRequest.of(0, preloadSize))) {
+                if (products.size() >= preloadSize) {
+                    break;
+                }
+                if (ids.add(recent.getId())) {
+                    products.add(recent);
+                }
+            }
+        }
+        Cache cache = cacheManager.getCache(CacheConfig.GROCERIES);
+        for (Groceries product : products) {
+            cache.put(product.getId(), product);
+        }
+        preloaded = products.size();
+    }
+
+    private void exerciseJwt() {
+        UsernamePasswordAuthenticationToken warmupUser = new UsernamePasswordAuthenticationToken("warmup", null);
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(jitDurationMs / 2);
+        while (System.nanoTime() < deadline) {
+            jwtUtil.parseClaims(jwtUtil.generateToken(warmupUser));
+        }
+    }
+
+    private void exerciseJson() throws Exception {
+        List<Groceries> products = new ArrayList<>(sampleProducts());
+        if (products.isEmpty()) {
+            products.add(Groceries.builder().id(0L).name("warmup").description("warm-up item").price(1.0).quantity(1).build());
+        }
+        List<Cart> cart = List.of(Cart.builder().id(0L).userId(0L).productId(0L).quantity(1).totalPrice(1.0).build());
+        ObjectWriter listWriter = objectMapper.writerFor(new TypeReference<List<Groceries>>() { });
+        ObjectWriter cartWriter = objectMapper.writerFor(new TypeReference<List<Cart>>() { });
+        String single = objectMapper.writeValueAsString(products.get(0));
+
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(jitDurationMs / 2);
+        while (System.nanoTime() < deadline) {
+            listWriter.writeValueAsBytes(products);
+            cartWriter.writeValueAsBytes(cart);
+            objectMapper.writeValueAsBytes(products.get(0));
+            objectMapper.readValue(single, Groceries.class);
+        }
+    }
+
+    // A page-sized slice of real rows, the shape GET /api/groceries returns
+    private List<Groceries> sampleProducts() {
+        return groceriesRepository.findAllByOrderByUpdatedAtDesc(PageRequest.of(0, 50));
+    }
+
+    @FunctionalInterface
+    private interface WarmupStage {
+        void run() throws Exception;
+    }
+}
@@ -0,0 +1,47 @@
+-- Baseline schema: the tables Hibernate used to create with ddl-auto=update, plus the indexes
+-- and constraints the repository finders need.
+-- IF NOT EXISTS everywhere, so existing databases (baselined at version 0) just gain the indexes.
+-- The table constraints below only reach new databases; V4 (db/vendor/*) adds them to existing ones.
+
+CREATE TABLE IF NOT EXISTS users (
+    id       BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    username VARCHAR(255) NOT NULL,
+    password VARCHAR(255),
+    role     VARCHAR(255),
+    -- UserRepository.findByUsername / existsByUsername (every authenticated request): unique index
+    CONSTRAINT uk_users_username UNIQUE (username)
+);
+
+CREATE TABLE IF NOT EXISTS groceries (
+    id          BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name        VARCHAR(255),
+    description VARCHAR(255),
+    price       DOUBLE PRECISION NOT NULL,
+    quantity    INTEGER NOT NULL,
+    created_at  TIMESTAMP(6),
+    updated_at  TIMESTAMP(6),
+    -- Last line of defence behind StockService's guarded decrements
+    CONSTRAINT ck_groceries_quantity_non_negative CHECK (quantity >= 0)
+);
+
+CREATE TABLE IF NOT EXISTS cart (
+    id          BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    user_id     BIGINT,
+    product_id  BIGINT,
+    quantity    INTEGER NOT NULL,
+    total_price DOUBLE PRECISION NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS revoked_tokens (
+    jti        VARCHAR(64) PRIMARY KEY,
+    expires_at TIMESTAMP(6) WITH TIME ZONE NOT NULL
+);
+
+-- CartRepository.findByUserId (view cart, checkout)
+CREATE INDEX IF NOT EXISTS idx_cart_user_id ON cart (user_id);
+
+-- Recently changed products (catalog sync / cache refresh by updated_at)
+CREATE INDEX IF NOT EXISTS idx_groceries_updated_at ON groceries (updated_at);
+
+-- RevokedTokenRepository.findByExpiresAtAfter / deleteExpired (revocation refresh)
+CREATE INDEX IF NOT EXISTS idx_revoked_tokens_expires_at ON revoked_tokens (expires_at);
@@ -0,0 +1,17 @@
+-- Audit trail (AuditTrail / AuditLogRepository): append-only, written in multi-row batches
+-- by a background thread, read by the admin query endpoint.
+
+CREATE TABLE IF NOT EXISTS audit_log (
+    id          BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    occurred_at TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    action      VARCHAR(32) NOT NULL,
+    actor       VARCHAR(255),
+    target      VARCHAR(255),
+    success     BOOLEAN NOT NULL,
+    detail      VARCHAR(1000)
+);
+
+-- GET /api/admin/audit: newest first, optionally for one actor or one action
+CREATE INDEX IF NOT EXISTS idx_audit_log_occurred_at ON audit_log (occurred_at);
+CREATE INDEX IF NOT EXISTS idx_audit_log_actor_occurred_at ON audit_log (actor, occurred_at);
+CREATE INDEX IF NOT EXISTS idx_audit_log_action_occurred_at ON audit_log (action, occurred_at);
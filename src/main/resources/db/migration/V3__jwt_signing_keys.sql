@@ -0,0 +1,17 @@
+-- JWT signing keys for app.jwt.algorithm=ES256 / EdDSA (JwtKeyRing / JwtKeyRepository), shared by every node,
+-- so a token signed by one node verifies on all of them and survives restarts.
+-- Holds PRIVATE keys: grant this table to the application user only.
+
+CREATE TABLE IF NOT EXISTS jwt_signing_keys (
+    kid          VARCHAR(64) PRIMARY KEY,
+    algorithm    VARCHAR(16) NOT NULL,            -- JWS alg the key signs with: ES256 | EdDSA
+    key_type     VARCHAR(16) NOT NULL,            -- JCA KeyFactory algorithm: EC | EdDSA
+    state        VARCHAR(16) NOT NULL,            -- NEXT | ACTIVE | RETIRED
+    public_key   VARCHAR(1024) NOT NULL,          -- X.509, Base64
+    private_key  VARCHAR(1024) NOT NULL,          -- PKCS#8, Base64
+    created_at   TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    verify_until TIMESTAMP(6) WITH TIME ZONE      -- set when the key is retired
+);
+
+-- JwtKeyRepository.findLive (every node, every app.jwt.rotation.check-interval-ms)
+CREATE INDEX IF NOT EXISTS idx_jwt_signing_keys_algorithm_state ON jwt_signing_keys (algorithm, state);
@@ -0,0 +1,180 @@
+package com.example.groceries_jwt_project.audit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Overflow policies with a database that stalls: the first batch blocks inside insertBatch
+ * until the test releases it, so the queue (capacity 2) fills up behind it.
+ * Each test publishes 5 events: 1 in the stalled batch, 2 queued, 2 overflowing.
+ * Also: a batch the database refuses because of one row loses that row only.
+ */
+class AuditTrailOverflowTest {
+
+	private static final int EVENTS = 5;
+
+	@TempDir
+	Path tempDir;
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private final List<AuditEvent> stored = new CopyOnWriteArrayList<>();
+	private final CountDownLatch stalled = new CountDownLatch(1);
+	private final CountDownLatch release = new CountDownLatch(1);
+	private AuditTrail auditTrail;
+
+	@AfterEach
+	void stop() throws InterruptedException {
+		release.countDown();
+		auditTrail.stop();
+	}
+
+	@Test
+	void dropCountsWhatDidNotFit() throws Exception {
+		start(AuditTrail.Overflow.DROP, 0);
+		publishAll();
+
+		assertThat(dropped()).isEqualTo(2);
+		release.countDown();
+		awaitStored(3);
+	}
+
+	@Test
+	void spillAppendsToTheFileAndReplaysItOnceCaughtUp() throws Exception {
+		start(AuditTrail.Overflow.SPILL, 0);
+		publishAll();
+
+		Path spillFile = tempDir.resolve("spill.jsonl");
+		assertThat(Files.readAllLines(spillFile)).hasSize(2);
+		assertThat(meterRegistry.counter("audit.events.spilled").count()).isEqualTo(2);
+
+		release.countDown();
+		awaitStored(EVENTS);
+		assertThat(stored).extracting(AuditEvent::target)
+				.containsExactlyInAnyOrder("e0", "e1", "e2", "e3", "e4");
+		assertThat(dropped()).isZero();
+		awaitGone(spillFile);
+	}
+
+	@Test
+	void blockWaitsForRoomInsteadOfLosingEvents() throws Exception {
+		start(AuditTrail.Overflow.BLOCK, 5_000);
+		Thread releaser = new Thread(() -> {
+			sleep(200);
+			release.countDown();
+		});
+		releaser.start();
+
+		long startNanos = System.nanoTime();
+		publishAll(); // the overflowing publishes wait until the stalled batch is released
+		assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos)).isGreaterThanOrEqualTo(150);
+
+		awaitStored(EVENTS);
+		assertThat(dropped()).isZero();
+		releaser.join();
+	}
+
+	@Test
+	void aRowTheDatabaseRefusesCostsOnlyThatEvent() throws Exception {
+		AuditLogRepository repository = mock(AuditLogRepository.class);
+		doAnswer(invocation -> {
+			List<AuditEvent> batch = invocation.getArgument(0);
+			if (batch.stream().anyMatch(event -> event.target().equals("e2"))) {
+				throw new DataIntegrityViolationException("value too long for column");
+			}
+			stored.addAll(batch);
+			return null;
+		}).when(repository).insertBatch(anyList());
+		start(repository, AuditTrail.Overflow.SPILL, 0, EVENTS, EVENTS);
+
+		IntStream.range(0, EVENTS).forEach(i -> auditTrail.publish(event(i)));
+
+		awaitStored(EVENTS - 1);
+		assertThat(stored).extracting(AuditEvent::target).containsExactlyInAnyOrder("e0", "e1", "e3", "e4");
+		assertThat(meterRegistry.counter("audit.events.dropped", "reason", "rejected").count()).isEqualTo(1);
+		assertThat(tempDir.resolve("spill.jsonl")).doesNotExist(); // it would only fail again on replay
+	}
+
+	// -------------------------------
+	// HELPERS
+	// -------------------------------
+	private void start(AuditTrail.Overflow overflow, long blockTimeoutMs) {
+		AuditLogRepository repository = mock(AuditLogRepository.class);
+		doAnswer(invocation -> {
+			stalled.countDown();
+			release.await();
+			stored.addAll(invocation.getArgument(0)); // the writer reuses its batch list: copy
+			return null;
+		}).when(repository).insertBatch(anyList());
+		start(repository, overflow, blockTimeoutMs, 2, 1);
+	}
+
+	private void start(AuditLogRepository repository, AuditTrail.Overflow overflow, long blockTimeoutMs,
+			int queueCapacity, int batchSize) {
+		auditTrail = new AuditTrail(repository, Jackson2ObjectMapperBuilder.json().build(), meterRegistry);
+		ReflectionTestUtils.setField(auditTrail, "queueCapacity", queueCapacity);
+		ReflectionTestUtils.setField(auditTrail, "batchSize", batchSize);
+		ReflectionTestUtils.setField(auditTrail, "flushIntervalMs", 10L);
+		ReflectionTestUtils.setField(auditTrail, "overflow", overflow);
+		ReflectionTestUtils.setField(auditTrail, "blockTimeoutMs", blockTimeoutMs);
+		ReflectionTestUtils.setField(auditTrail, "spillFile", tempDir.resolve("spill.jsonl"));
+		auditTrail.start();
+	}
+
+	// e0 goes straight into the (stalled) writer; e1, e2 fill the queue; e3, e4 overflow
+	private void publishAll() throws InterruptedException {
+		auditTrail.publish(event(0));
+		assertThat(stalled.await(5, TimeUnit.SECONDS)).isTrue();
+		IntStream.range(1, EVENTS).forEach(i -> auditTrail.publish(event(i)));
+	}
+
+	private double dropped() {
+		return meterRegistry.find("audit.events.dropped").counters().stream().mapToDouble(c -> c.count()).sum();
+	}
+
+	private void awaitStored(int count) {
+		long deadline = System.currentTimeMillis() + 10_000;
+		while (stored.size() < count && System.currentTimeMillis() < deadline) {
+			sleep(20);
+		}
+		assertThat(stored).hasSize(count);
+	}
+
+	private static void awaitGone(Path file) {
+		long deadline = System.currentTimeMillis() + 10_000;
+		while (Files.exists(file) && System.currentTimeMillis() < deadline) {
+			sleep(20);
+		}
+		assertThat(file).doesNotExist();
+	}
+
+	private static AuditEvent event(int i) {
+		return AuditEvent.success(AuditAction.LOGIN, "overflow-test", "e" + i);
+	}
+
+	private static void sleep(long millis) {
+		try {
+			Thread.sleep(millis);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
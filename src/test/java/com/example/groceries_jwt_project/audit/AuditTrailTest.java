@@ -0,0 +1,117 @@
+package com.example.groceries_jwt_project.audit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.List;
+import java.util.stream.StreamSupport;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.example.groceries_jwt_project.entity.User;
+import com.example.groceries_jwt_project.repository.UserRepository;
+import com.example.groceries_jwt_project.security.JwtUtil;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * End to end: the audited endpoints publish, the writer stores, the admin endpoint finds.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class AuditTrailTest {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private JwtUtil jwtUtil;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Test
+	void authAndCatalogChangesReachTheAuditLog() throws Exception {
+		String suffix = Long.toString(System.nanoTime());
+		String username = "audit-user-" + suffix;
+		String credentials = "{\"username\":\"" + username + "\",\"password\":\"secret\"}";
+		mockMvc.perform(post("/auth/register").contentType(MediaType.APPLICATION_JSON).content(credentials))
+				.andExpect(status().isOk());
+		mockMvc.perform(post("/auth/login").contentType(MediaType.APPLICATION_JSON).content(credentials))
+				.andExpect(status().isOk());
+		mockMvc.perform(post("/auth/login").contentType(MediaType.APPLICATION_JSON)
+				.content("{\"username\":\"" + username + "\",\"password\":\"wrong\"}"))
+				.andExpect(status().isUnauthorized());
+
+		User admin = userRepository.save(new User(null, "audit-admin-" + suffix, "x", "ROLE_ADMIN"));
+		String adminToken = "Bearer " + jwtUtil.generateToken(new UsernamePasswordAuthenticationToken(admin.getUsername(), null));
+		String created = mockMvc.perform(post("/api/groceries").header(HttpHeaders.AUTHORIZATION, adminToken)
+				.contentType(MediaType.APPLICATION_JSON).content("{\"name\":\"audited\",\"price\":1.0,\"quantity\":5}"))
+				.andExpect(status().isCreated()).andReturn().getResponse().getContentAsString();
+		long productId = objectMapper.readTree(created).get("id").asLong();
+		mockMvc.perform(put("/api/groceries/" + productId).header(HttpHeaders.AUTHORIZATION, adminToken)
+				.contentType(MediaType.APPLICATION_JSON).content("{\"name\":\"audited\",\"price\":2.0,\"quantity\":5}"))
+				.andExpect(status().isOk());
+		mockMvc.perform(delete("/api/groceries/" + productId).header(HttpHeaders.AUTHORIZATION, adminToken))
+				.andExpect(status().isNoContent());
+
+		List<String> userEvents = awaitEvents(adminToken, "actor=" + username, 3);
+		assertThat(userEvents).containsExactlyInAnyOrder("REGISTER:true", "LOGIN:true", "LOGIN:false");
+
+		List<String> adminEvents = awaitEvents(adminToken, "actor=" + admin.getUsername(), 3);
+		assertThat(adminEvents).containsExactly("PRODUCT_DELETED:true", "PRODUCT_UPDATED:true", "PRODUCT_CREATED:true");
+	}
+
+	@Test
+	void overlongLoginNameIsStoredCutToTheColumnWidth() throws Exception {
+		String username = ("audit-long-" + System.nanoTime() + "-").repeat(12).substring(0, 300);
+		mockMvc.perform(post("/auth/login").contentType(MediaType.APPLICATION_JSON)
+				.content("{\"username\":\"" + username + "\",\"password\":\"wrong\"}"))
+				.andExpect(status().isUnauthorized());
+
+		User admin = userRepository.save(new User(null, "audit-admin-" + System.nanoTime(), "x", "ROLE_ADMIN"));
+		String adminToken = "Bearer " + jwtUtil.generateToken(new UsernamePasswordAuthenticationToken(admin.getUsername(), null));
+		assertThat(awaitEvents(adminToken, "actor=" + username.substring(0, 255), 1)).containsExactly("LOGIN:false");
+	}
+
+	@Test
+	void queryIsAdminOnly() throws Exception {
+		User user = userRepository.save(new User(null, "audit-plain-" + System.nanoTime(), "x", "ROLE_USER"));
+		String token = jwtUtil.generateToken(new UsernamePasswordAuthenticationToken(user.getUsername(), null));
+		mockMvc.perform(get("/api/admin/audit").header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+				.andExpect(status().isForbidden());
+	}
+
+	// The writer flushes every app.audit.flush-interval-ms: poll until the rows are there
+	private List<String> awaitEvents(String adminToken, String query, int expected) throws Exception {
+		long deadline = System.currentTimeMillis() + 10_000;
+		List<String> events = List.of();
+		while (System.currentTimeMillis() < deadline) {
+			String body = mockMvc.perform(get("/api/admin/audit?" + query).header(HttpHeaders.AUTHORIZATION, adminToken))
+					.andExpect(status().isOk()).andReturn().getResponse().getContentAsString();
+			JsonNode rows = objectMapper.readTree(body);
+			events = StreamSupport.stream(rows.spliterator(), false)
+					.map(row -> row.get("action").asText() + ":" + row.get("success").asBoolean())
+					.toList();
+			if (events.size() >= expected) {
+				break;
+			}
+			Thread.sleep(50);
+		}
+		return events;
+	}
+}
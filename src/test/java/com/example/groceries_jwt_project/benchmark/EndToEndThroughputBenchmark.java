@@ -0,0 +1,358 @@
+package com.example.groceries_jwt_project.benchmark;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+/**
+ * End-to-end throughput/latency harness: boots the whole app on a random port against the
+ * in-memory H2 (PostgreSQL mode) test database and drives real HTTP through AuthController,
+ * GroceriesController and CartController.
+ *
+ * Not part of the normal test run (tag "benchmark"). Run with:
+ *   ./mvnw -Pbench test
+ *   ./mvnw -Pbench test -Dbench.concurrency=1,16,64 -Dbench.duration-seconds=30 -Dbench.label=$(git rev-parse --short HEAD)
+ *
+ * Knobs (system properties): bench.catalog-size, bench.users, bench.concurrency,
+ * bench.warmup-seconds, bench.duration-seconds, bench.mixes, bench.label.
+ * Reports: target/benchmark/e2e-<label>.json and a row per mix/concurrency in e2e-history.csv.
+ *
+ * Virtual vs platform request threads (JDK 21+): run once as-is and once with
+ *   -Dspring.threads.virtual.enabled=true -Dbench.label=virtual
+ * and compare throughput, latency, peak platform threads and heap. Thread and heap numbers are
+ * for the whole JVM, so they include the load generator's own (fixed) client threads.
+ */
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class EndToEndThroughputBenchmark {
+
+	private static final String PASSWORD = "bench-password";
+
+	private final int catalogSize = Integer.getInteger("bench.catalog-size", 1000);
+	private final int userCount = Integer.getInteger("bench.users", 50);
+	private final int warmupSeconds = Integer.getInteger("bench.warmup-seconds", 5);
+	private final int durationSeconds = Integer.getInteger("bench.duration-seconds", 10);
+	private final String label = System.getProperty("bench.label", "local");
+	private final List<Integer> concurrencyLevels = parseInts(System.getProperty("bench.concurrency", "1,8,32"));
+	private final List<String> mixes = List.of(System.getProperty("bench.mixes", "browse,cart,checkout,auth,mixed").split(","));
+
+	@LocalServerPort
+	private int port;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private Environment environment;
+
+	@Autowired
+	private PasswordEncoder passwordEncoder;
+
+	private final HttpClient http = HttpClient.newBuilder()
+			.version(HttpClient.Version.HTTP_1_1)
+			.connectTimeout(Duration.ofSeconds(5))
+			.build();
+
+	private final AtomicLong registrations = new AtomicLong();
+	private List<Long> productIds;
+	private List<String> tokens;
+
+	@Test
+	void run() throws Exception {
+		seed();
+		tokens = loginAll();
+
+		List<Map<String, Object>> results = new ArrayList<>();
+		for (String mix : mixes) {
+			for (int concurrency : concurrencyLevels) {
+				drive(Mix.valueOf(mix.trim().toUpperCase()), concurrency, warmupSeconds); // JIT + pool warm-up, discarded
+				results.add(drive(Mix.valueOf(mix.trim().toUpperCase()), concurrency, durationSeconds).toReport());
+			}
+		}
+		writeReports(results);
+	}
+
+	// -------------------------------
+	// SEEDING
+	// -------------------------------
+	private void seed() {
+		jdbcTemplate.batchUpdate(
+				"insert into groceries (name, description, price, quantity, created_at, updated_at) values (?, ?, ?, ?, now(), now())",
+				range(catalogSize), catalogSize, (ps, i) -> {
+					ps.setString(1, "product-" + i);
+					ps.setString(2, "Benchmark product number " + i);
+					ps.setDouble(3, 1.0 + i % 100);
+					ps.setInt(4, 1_000_000_000); // checkout mixes must never run out of stock
+				});
+		productIds = jdbcTemplate.queryForList("select id from groceries", Long.class);
+
+		// One hash for everyone: seeding should not spend minutes in BCrypt
+		String hash = passwordEncoder.encode(PASSWORD);
+		jdbcTemplate.batchUpdate("insert into users (username, password, role) values (?, ?, 'ROLE_USER')",
+				range(userCount), userCount, (ps, i) -> {
+					ps.setString(1, "bench-user-" + i);
+					ps.setString(2, hash);
+				});
+	}
+
+	private List<String> loginAll() throws IOException, InterruptedException {
+		List<String> result = new ArrayList<>();
+		for (int i = 0; i < userCount; i++) {
+			HttpResponse<String> response = send(post("/auth/login", credentials("bench-user-" + i), null));
+			if (response.statusCode() != 200) {
+				throw new IllegalStateException("Login failed for bench-user-" + i + ": " + response.body());
+			}
+			result.add(response.body());
+		}
+		return result;
+	}
+
+	// -------------------------------
+	// LOAD GENERATION
+	// -------------------------------
+	private Result drive(Mix mix, int concurrency, int seconds) throws Exception {
+		ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+		threads.resetPeakThreadCount();
+		ExecutorService workers = Executors.newFixedThreadPool(concurrency);
+		long deadline = System.nanoTime() + Duration.ofSeconds(seconds).toNanos();
+		List<Future<LatencyRecorder>> futures = new ArrayList<>();
+		long start = System.nanoTime();
+		for (int w = 0; w < concurrency; w++) {
+			String token = tokens.get(w % tokens.size());
+			futures.add(workers.submit(() -> {
+				LatencyRecorder recorder = new LatencyRecorder();
+				while (System.nanoTime() < deadline) {
+					mix.step(this, token, recorder);
+				}
+				return recorder;
+			}));
+		}
+		LatencyRecorder merged = new LatencyRecorder();
+		for (Future<LatencyRecorder> future : futures) {
+			merged.merge(future.get());
+		}
+		long elapsed = System.nanoTime() - start;
+		workers.shutdown();
+		long heapUsedMb = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed() >> 20;
+		return new Result(mix, concurrency, elapsed, merged, threads.getPeakThreadCount(), heapUsedMb);
+	}
+
+	/** Weighted request mixes; each step issues one logical user action. */
+	private enum Mix {
+		BROWSE {
+			void step(EndToEndThroughputBenchmark b, String token, LatencyRecorder r) throws Exception {
+				if (chance(20)) {
+					b.timed(r, "GET /api/groceries", b.get("/api/groceries", null));
+				} else {
+					b.timed(r, "GET /api/groceries/{id}", b.get("/api/groceries/" + b.randomProduct(), null));
+				}
+			}
+		},
+		CART {
+			void step(EndToEndThroughputBenchmark b, String token, LatencyRecorder r) throws Exception {
+				if (chance(50)) {
+					b.addToCart(token, r);
+				} else {
+					b.timed(r, "GET /api/cart", b.get("/api/cart", token));
+				}
+			}
+		},
+		CHECKOUT {
+			void step(EndToEndThroughputBenchmark b, String token, LatencyRecorder r) throws Exception {
+				b.addToCart(token, r);
+				b.addToCart(token, r);
+				b.timed(r, "POST /api/cart/checkout", b.post("/api/cart/checkout", null, token));
+			}
+		},
+		AUTH {
+			void step(EndToEndThroughputBenchmark b, String token, LatencyRecorder r) throws Exception {
+				String username = "bench-new-" + b.registrations.incrementAndGet() + "-" + System.nanoTime();
+				b.timed(r, "POST /auth/register", b.post("/auth/register", credentials(username), null));
+				b.timed(r, "POST /auth/login", b.post("/auth/login", credentials(username), null));
+			}
+		},
+		MIXED {
+			void step(EndToEndThroughputBenchmark b, String token, LatencyRecorder r) throws Exception {
+				int dice = ThreadLocalRandom.current().nextInt(100);
+				if (dice < 10) {
+					b.timed(r, "GET /api/groceries", b.get("/api/groceries", null));
+				} else if (dice < 70) {
+					b.timed(r, "GET /api/groceries/{id}", b.get("/api/groceries/" + b.randomProduct(), null));
+				} else if (dice < 85) {
+					b.addToCart(token, r);
+				} else if (dice < 95) {
+					b.timed(r, "GET /api/cart", b.get("/api/cart", token));
+				} else {
+					b.addToCart(token, r);
+					b.timed(r, "POST /api/cart/checkout", b.post("/api/cart/checkout", null, token));
+				}
+			}
+		};
+
+		abstract void step(EndToEndThroughputBenchmark b, String token, LatencyRecorder r) throws Exception;
+
+		private static boolean chance(int percent) {
+			return ThreadLocalRandom.current().nextInt(100) < percent;
+		}
+	}
+
+	private void addToCart(String token, LatencyRecorder recorder) throws IOException, InterruptedException {
+		timed(recorder, "POST /api/cart/add",
+				post("/api/cart/add?productId=" + randomProduct() + "&quantity=1", null, token));
+	}
+
+	private void timed(LatencyRecorder recorder, String operation, HttpRequest request)
+			throws IOException, InterruptedException {
+		long start = System.nanoTime();
+		HttpResponse<String> response = send(request);
+		recorder.record(operation, System.nanoTime() - start, response.statusCode() < 400);
+	}
+
+	// -------------------------------
+	// HTTP HELPERS
+	// -------------------------------
+	private HttpResponse<String> send(HttpRequest request) throws IOException, InterruptedException {
+		return http.send(request, HttpResponse.BodyHandlers.ofString());
+	}
+
+	private HttpRequest get(String path, String token) {
+		HttpRequest.Builder builder = HttpRequest.newBuilder(uri(path)).GET();
+		return authorize(builder, token).build();
+	}
+
+	private HttpRequest post(String path, String json, String token) {
+		HttpRequest.Builder builder = HttpRequest.newBuilder(uri(path))
+				.header("Content-Type", "application/json")
+				.POST(json == null ? HttpRequest.BodyPublishers.noBody() : HttpRequest.BodyPublishers.ofString(json));
+		return authorize(builder, token).build();
+	}
+
+	private static HttpRequest.Builder authorize(HttpRequest.Builder builder, String token) {
+		return token == null ? builder : builder.header("Authorization", "Bearer " + token);
+	}
+
+	private URI uri(String path) {
+		return URI.create("http://localhost:" + port + path);
+	}
+
+	private long randomProduct() {
+		return productIds.get(ThreadLocalRandom.current().nextInt(productIds.size()));
+	}
+
+	private static String credentials(String username) {
+		return "{\"username\":\"" + username + "\",\"password\":\"" + PASSWORD + "\"}";
+	}
+
+	// -------------------------------
+	// REPORTING
+	// -------------------------------
+	private record Result(Mix mix, int concurrency, long elapsedNanos, LatencyRecorder latencies,
+			int peakPlatformThreads, long heapUsedMb) {
+
+		Map<String, Object> toReport() {
+			Map<String, Object> report = new LinkedHashMap<>();
+			report.put("mix", mix.name().toLowerCase());
+			report.put("concurrency", concurrency);
+			report.put("requests", latencies.count());
+			report.put("errors", latencies.errors());
+			report.put("throughputRps", latencies.count() / (elapsedNanos / 1e9));
+			report.put("peakPlatformThreads", peakPlatformThreads);
+			report.put("heapUsedMb", heapUsedMb);
+			report.put("operations", latencies.summarize());
+			return report;
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private void writeReports(List<Map<String, Object>> results) throws IOException {
+		Path dir = Paths.get("target", "benchmark");
+		Files.createDirectories(dir);
+
+		Map<String, Object> document = new LinkedHashMap<>();
+		document.put("label", label);
+		document.put("timestamp", Instant.now().toString());
+		document.put("catalogSize", catalogSize);
+		document.put("users", userCount);
+		document.put("durationSeconds", durationSeconds);
+		document.put("requestThreads", requestThreads());
+		document.put("results", results);
+		new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT)
+				.writeValue(dir.resolve("e2e-" + label + ".json").toFile(), document);
+
+		Path history = dir.resolve("e2e-history.csv");
+		if (!Files.exists(history)) {
+			Files.writeString(history, "label,timestamp,mix,concurrency,requests,errors,throughput_rps,p50_ms,p99_ms,p999_ms,"
+					+ "request_threads,peak_platform_threads,heap_used_mb\n");
+		}
+		StringBuilder rows = new StringBuilder();
+		System.out.printf("%nRequest threads: %s%n%-10s %6s %9s %7s %10s %9s %9s %9s %8s %8s%n", requestThreads(),
+				"mix", "conc", "requests", "errors", "rps", "p50 ms", "p99 ms", "p999 ms", "threads", "heap MB");
+		for (Map<String, Object> result : results) {
+			LatencyRecorder.Summary all = ((Map<String, LatencyRecorder.Summary>) result.get("operations")).get("ALL");
+			System.out.printf("%-10s %6d %9d %7d %10.1f %9.2f %9.2f %9.2f %8d %8d%n",
+					result.get("mix"), result.get("concurrency"), result.get("requests"), result.get("errors"),
+					result.get("throughputRps"), all.p50Ms(), all.p99Ms(), all.p999Ms(),
+					result.get("peakPlatformThreads"), result.get("heapUsedMb"));
+			rows.append(String.join(",", label, document.get("timestamp").toString(), result.get("mix").toString(),
+					result.get("concurrency").toString(), result.get("requests").toString(),
+					result.get("errors").toString(), String.format("%.1f", result.get("throughputRps")),
+					String.format("%.3f", all.p50Ms()), String.format("%.3f", all.p99Ms()),
+					String.format("%.3f", all.p999Ms()), requestThreads(), result.get("peakPlatformThreads").toString(),
+					result.get("heapUsedMb").toString())).append('\n');
+		}
+		Files.writeString(history, rows, StandardOpenOption.APPEND);
+	}
+
+	// What Boot actually did: the property alone has no effect before JDK 21
+	private String requestThreads() {
+		return Threading.VIRTUAL.isActive(environment) ? "virtual" : "platform";
+	}
+
+	private static List<Integer> parseInts(String csv) {
+		List<Integer> values = new ArrayList<>();
+		for (String part : csv.split(",")) {
+			values.add(Integer.parseInt(part.trim()));
+		}
+		return values;
+	}
+
+	private static List<Integer> range(int n) {
+		List<Integer> values = new ArrayList<>(n);
+		for (int i = 0; i < n; i++) {
+			values.add(i);
+		}
+		return values;
+	}
+}
@@ -0,0 +1,83 @@
+package com.example.groceries_jwt_project.benchmark;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Per-thread latency samples, one growable long[] per operation name.
+ * Each worker owns its recorder (no contention while measuring); merge() happens after the run.
+ */
+final class LatencyRecorder {
+
+	private final Map<String, Samples> samples = new LinkedHashMap<>();
+	private long errors;
+
+	void record(String operation, long nanos, boolean ok) {
+		samples.computeIfAbsent(operation, k -> new Samples()).add(nanos);
+		if (!ok) {
+			errors++;
+		}
+	}
+
+	void merge(LatencyRecorder other) {
+		other.samples.forEach((operation, s) -> {
+			Samples target = samples.computeIfAbsent(operation, k -> new Samples());
+			for (int i = 0; i < s.size; i++) {
+				target.add(s.values[i]);
+			}
+		});
+		errors += other.errors;
+	}
+
+	long errors() {
+		return errors;
+	}
+
+	long count() {
+		return samples.values().stream().mapToLong(s -> s.size).sum();
+	}
+
+	/** Percentile summary (milliseconds) per operation plus an "ALL" row. */
+	Map<String, Summary> summarize() {
+		Map<String, Summary> result = new LinkedHashMap<>();
+		Samples all = new Samples();
+		samples.forEach((operation, s) -> {
+			result.put(operation, s.summary());
+			for (int i = 0; i < s.size; i++) {
+				all.add(s.values[i]);
+			}
+		});
+		result.put("ALL", all.summary());
+		return result;
+	}
+
+	record Summary(long count, double p50Ms, double p99Ms, double p999Ms, double maxMs) {
+	}
+
+	private static final class Samples {
+		private long[] values = new long[1024];
+		private int size;
+
+		void add(long nanos) {
+			if (size == values.length) {
+				values = Arrays.copyOf(values, size * 2);
+			}
+			values[size++] = nanos;
+		}
+
+		Summary summary() {
+			if (size == 0) {
+				return new Summary(0, 0, 0, 0, 0);
+			}
+			long[] sorted = Arrays.copyOf(values, size);
+			Arrays.sort(sorted);
+			return new Summary(size, ms(sorted, 0.50), ms(sorted, 0.99), ms(sorted, 0.999), sorted[size - 1] / 1e6);
+		}
+
+		private static double ms(long[] sorted, double quantile) {
+			int index = (int) Math.ceil(quantile * sorted.length) - 1;
+			return sorted[Math.max(0, index)] / 1e6;
+		}
+	}
+}
@@ -0,0 +1,146 @@
+package com.example.groceries_jwt_project.benchmark;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+
+import com.example.groceries_jwt_project.entity.User;
+import com.example.groceries_jwt_project.repository.UserRepository;
+import com.example.groceries_jwt_project.security.JwtUtil;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Wall-clock time of one POST /api/admin/users/bulk with bench.provisioning.users (default 10k) new users,
+ * over real HTTP against the app on H2, with the production BCrypt strength and hash pool size.
+ *
+ * Not part of the normal test run (tag "benchmark"). Run with:
+ *   ./mvnw -Pbench test -Dtest=ProvisioningThroughputBenchmark
+ *   ./mvnw -Pbench test -Dtest=ProvisioningThroughputBenchmark -Dbench.provisioning.users=1000 -Dbench.label=small
+ *
+ * Reports: target/benchmark/provisioning-<label>.json and a row in provisioning-history.csv,
+ * with users per second and the time spent per stage (lookup, hash, insert).
+ */
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class ProvisioningThroughputBenchmark {
+
+	private static final Logger log = LoggerFactory.getLogger(ProvisioningThroughputBenchmark.class);
+
+	private final int userCount = Integer.getInteger("bench.provisioning.users", 10_000);
+	private final String label = System.getProperty("bench.label", "local");
+
+	@LocalServerPort
+	private int port;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private JwtUtil jwtUtil;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Value("${app.provisioning.hash-parallelism:0}")
+	private int hashParallelism;
+
+	@Test
+	void run() throws Exception {
+		String prefix = "bench-bulk-" + System.nanoTime() + "-";
+		StringBuilder body = new StringBuilder("[");
+		for (int i = 0; i < userCount; i++) {
+			body.append(i == 0 ? "" : ",")
+					.append("{\"username\":\"").append(prefix).append(i).append("\",\"password\":\"pw-").append(i).append("\"}");
+		}
+		body.append(']');
+
+		User admin = userRepository.save(new User(null, prefix + "admin", "x", "ROLE_ADMIN"));
+		String token = jwtUtil.generateToken(new UsernamePasswordAuthenticationToken(admin.getUsername(), null));
+		HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/admin/users/bulk"))
+				.header("Content-Type", "application/json")
+				.header("Authorization", "Bearer " + token)
+				.POST(HttpRequest.BodyPublishers.ofString(body.toString()))
+				.build();
+
+		long start = System.nanoTime();
+		HttpResponse<String> response = HttpClient.newHttpClient().send(request, HttpResponse.BodyHandlers.ofString());
+		double seconds = (System.nanoTime() - start) / 1e9;
+
+		assertThat(response.statusCode()).isEqualTo(200);
+		JsonNode report = objectMapper.readTree(response.body());
+		assertThat(report.get("created").asInt()).isEqualTo(userCount);
+
+		Map<String, Object> result = new LinkedHashMap<>();
+		result.put("label", label);
+		result.put("timestamp", Instant.now().toString());
+		result.put("users", userCount);
+		result.put("hashThreads", hashParallelism > 0 ? hashParallelism : Runtime.getRuntime().availableProcessors());
+		result.put("seconds", seconds);
+		result.put("usersPerSecond", userCount / seconds);
+		result.put("lookupSeconds", stageSeconds("lookup"));
+		result.put("hashSeconds", stageSeconds("hash"));
+		result.put("insertSeconds", stageSeconds("insert"));
+		writeReport(result);
+	}
+
+	// -------------------------------
+	// REPORTING
+	// -------------------------------
+	private double stageSeconds(String stage) {
+		Timer timer = meterRegistry.find("users.provisioning.stage").tag("stage", stage).timer();
+		return timer == null ? 0 : timer.totalTime(TimeUnit.SECONDS);
+	}
+
+	private void writeReport(Map<String, Object> result) throws Exception {
+		Path dir = Paths.get("target", "benchmark");
+		Files.createDirectories(dir);
+		objectMapper.copy().enable(SerializationFeature.INDENT_OUTPUT)
+				.writeValue(dir.resolve("provisioning-" + label + ".json").toFile(), result);
+
+		Path history = dir.resolve("provisioning-history.csv");
+		if (!Files.exists(history)) {
+			Files.writeString(history, "label,timestamp,users,hash_threads,seconds,users_per_second,lookup_s,hash_s,insert_s\n");
+		}
+		Files.writeString(history, String.format("%s,%s,%d,%d,%.1f,%.1f,%.2f,%.1f,%.2f%n", result.get("label"),
+				result.get("timestamp"), result.get("users"), result.get("hashThreads"), result.get("seconds"),
+				result.get("usersPerSecond"), result.get("lookupSeconds"), result.get("hashSeconds"),
+				result.get("insertSeconds")), StandardOpenOption.APPEND);
+
+		log.atInfo().setMessage("Bulk provisioning benchmark")
+				.addKeyValue("users", result.get("users"))
+				.addKeyValue("hashThreads", result.get("hashThreads"))
+				.addKeyValue("seconds", String.format("%.1f", result.get("seconds")))
+				.addKeyValue("usersPerSecond", String.format("%.1f", result.get("usersPerSecond")))
+				.addKeyValue("hashSeconds", String.format("%.1f", result.get("hashSeconds")))
+				.log();
+	}
+}
@@ -0,0 +1,141 @@
+package com.example.groceries_jwt_project.controllers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.startsWith;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.example.groceries_jwt_project.entity.Cart;
+import com.example.groceries_jwt_project.entity.Groceries;
+import com.example.groceries_jwt_project.entity.User;
+import com.example.groceries_jwt_project.exception.InsufficientStockException;
+import com.example.groceries_jwt_project.exception.NotFoundException;
+import com.example.groceries_jwt_project.exception.UserNotFoundException;
+import com.example.groceries_jwt_project.repository.CartRepository;
+import com.example.groceries_jwt_project.repository.GroceriesRepository;
+import com.example.groceries_jwt_project.repository.UserRepository;
+import com.example.groceries_jwt_project.security.JwtUtil;
+
+/**
+ * Expected outcomes come back as problem details with the right status,
+ * and the exceptions behind them carry no stack trace.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class ApiExceptionHandlerTest {
+
+	private static final long MISSING_ID = Long.MAX_VALUE;
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private JwtUtil jwtUtil;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private GroceriesRepository groceriesRepository;
+
+	@Autowired
+	private CartRepository cartRepository;
+
+	private User user;
+	private String userToken;
+	private String adminToken;
+
+	@BeforeEach
+	void seed() {
+		String suffix = Long.toString(System.nanoTime());
+		user = userRepository.save(new User(null, "problem-user-" + suffix, "x", "ROLE_USER"));
+		User admin = userRepository.save(new User(null, "problem-admin-" + suffix, "x", "ROLE_ADMIN"));
+		userToken = token(user);
+		adminToken = token(admin);
+	}
+
+	@Test
+	void unknownProductIsA404ProblemDetail() throws Exception {
+		mockMvc.perform(get("/api/groceries/" + MISSING_ID))
+				.andExpect(status().isNotFound())
+				.andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_PROBLEM_JSON))
+				.andExpect(jsonPath("$.status").value(404))
+				.andExpect(jsonPath("$.title").value("Not found"))
+				.andExpect(jsonPath("$.detail").value("Grocery item not found with ID: " + MISSING_ID))
+				.andExpect(jsonPath("$.instance").value("/api/groceries/" + MISSING_ID));
+
+		mockMvc.perform(put("/api/groceries/" + MISSING_ID).header(HttpHeaders.AUTHORIZATION, "Bearer " + adminToken)
+				.contentType(MediaType.APPLICATION_JSON).content("{\"name\":\"x\",\"price\":1.0,\"quantity\":1}"))
+				.andExpect(status().isNotFound());
+		mockMvc.perform(delete("/api/groceries/" + MISSING_ID).header(HttpHeaders.AUTHORIZATION, "Bearer " + adminToken))
+				.andExpect(status().isNotFound());
+	}
+
+	@Test
+	void unknownCartLineAndProductAre404s() throws Exception {
+		mockMvc.perform(delete("/api/cart/remove/" + MISSING_ID).header(HttpHeaders.AUTHORIZATION, "Bearer " + userToken))
+				.andExpect(status().isNotFound())
+				.andExpect(jsonPath("$.detail").value("Cart item not found with ID: " + MISSING_ID));
+		mockMvc.perform(post("/api/cart/add?productId=" + MISSING_ID + "&quantity=1")
+				.header(HttpHeaders.AUTHORIZATION, "Bearer " + userToken))
+				.andExpect(status().isNotFound());
+	}
+
+	@Test
+	void anotherUsersCartLineIsA404AndStaysInTheirCart() throws Exception {
+		User owner = userRepository.save(new User(null, "problem-owner-" + System.nanoTime(), "x", "ROLE_USER"));
+		Groceries product = groceriesRepository.save(Groceries.builder().name("problem-cart-product").price(1.0).quantity(1).build());
+		Cart line = cartRepository.save(Cart.builder().userId(owner.getId()).productId(product.getId()).quantity(1)
+				.totalPrice(1.0).build());
+
+		mockMvc.perform(delete("/api/cart/remove/" + line.getId()).header(HttpHeaders.AUTHORIZATION, "Bearer " + userToken))
+				.andExpect(status().isNotFound())
+				.andExpect(jsonPath("$.detail").value("Cart item not found with ID: " + line.getId()));
+		assertThat(cartRepository.existsById(line.getId())).isTrue();
+
+		mockMvc.perform(delete("/api/cart/remove/" + line.getId()).header(HttpHeaders.AUTHORIZATION, "Bearer " + token(owner)))
+				.andExpect(status().isOk());
+		assertThat(cartRepository.existsById(line.getId())).isFalse();
+	}
+
+	@Test
+	void checkoutBeyondStockIsA409WithTheProduct() throws Exception {
+		Groceries product = groceriesRepository.save(Groceries.builder().name("problem-product").price(1.0).quantity(1).build());
+		cartRepository.save(Cart.builder().userId(user.getId()).productId(product.getId()).quantity(2).totalPrice(2.0).build());
+
+		mockMvc.perform(post("/api/cart/checkout").header(HttpHeaders.AUTHORIZATION, "Bearer " + userToken))
+				.andExpect(status().isConflict())
+				.andExpect(jsonPath("$.title").value("Insufficient stock"))
+				.andExpect(jsonPath("$.detail", startsWith("Insufficient stock for product: ")))
+				.andExpect(jsonPath("$.productId").value(product.getId()));
+
+		assertThat(cartRepository.findByUserId(user.getId())).as("checkout rolled back").hasSize(1);
+	}
+
+	@Test
+	void expectedOutcomesDoNotCaptureStackTraces() {
+		assertThat(NotFoundException.product(1L).getStackTrace()).isEmpty();
+		assertThat(new InsufficientStockException(1L, "apple").getStackTrace()).isEmpty();
+		assertThat(new UserNotFoundException("nobody").getStackTrace()).isEmpty();
+		assertThat(new IllegalStateException("a real bug").getStackTrace()).isNotEmpty();
+	}
+
+	private String token(User account) {
+		return jwtUtil.generateToken(new UsernamePasswordAuthenticationToken(account.getUsername(), null));
+	}
+}
@@ -0,0 +1,151 @@
+package com.example.groceries_jwt_project.controllers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import com.example.groceries_jwt_project.entity.Groceries;
+import com.example.groceries_jwt_project.repository.GroceriesRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
+/**
+ * Bytes on the wire for the catalog endpoints, through the real Tomcat (so gzip is included).
+ * Every encoding must decode to the same document; the size of each variant is logged.
+ * The CPU side of the comparison is JsonSerializationBenchmark (jmh profile).
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class ResponseFormatTest {
+
+	private static final Logger log = LoggerFactory.getLogger(ResponseFormatTest.class);
+
+	private static final int CATALOG_SIZE = 100;
+
+	private final HttpClient client = HttpClient.newHttpClient();
+	private final ObjectMapper json = new ObjectMapper();
+
+	@LocalServerPort
+	private int port;
+
+	@Autowired
+	private GroceriesRepository groceriesRepository;
+
+	private List<Groceries> products;
+	private Long productId;
+
+	@BeforeEach
+	void seed() {
+		List<Groceries> catalog = new ArrayList<>();
+		for (int i = 0; i < CATALOG_SIZE; i++) {
+			catalog.add(Groceries.builder().name("format-product-" + i)
+					.description("Fresh product number " + i + " from the local farm").price(1.5 + i).quantity(50).build());
+		}
+		products = groceriesRepository.saveAll(catalog);
+		productId = products.get(0).getId();
+	}
+
+	// The embedded database outlives this class (DB_CLOSE_DELAY=-1): leave the catalog as other suites expect it
+	@AfterEach
+	void removeSeededProducts() {
+		groceriesRepository.deleteAllInBatch(products);
+	}
+
+	@Test
+	void binaryFormatsAreSmallerAndCarryTheSameDocument() throws Exception {
+		HttpResponse<byte[]> plain = get("/api/groceries", "application/json", "identity");
+		HttpResponse<byte[]> cbor = get("/api/groceries", "application/cbor", "identity");
+		HttpResponse<byte[]> smile = get("/api/groceries", "application/x-jackson-smile", "identity");
+
+		assertThat(cbor.headers().firstValue("Content-Type")).hasValueSatisfying(type -> assertThat(type).startsWith("application/cbor"));
+		assertThat(smile.headers().firstValue("Content-Type")).hasValueSatisfying(type -> assertThat(type).startsWith("application/x-jackson-smile"));
+		JsonNode expected = json.readTree(plain.body());
+		assertThat(new ObjectMapper(new CBORFactory()).readTree(cbor.body())).isEqualTo(expected);
+		assertThat(new ObjectMapper(new SmileFactory()).readTree(smile.body())).isEqualTo(expected);
+
+		assertThat(cbor.body().length).isLessThan(plain.body().length);
+		assertThat(smile.body().length).isLessThan(plain.body().length);
+		record("list json", plain);
+		record("list cbor", cbor);
+		record("list smile", smile);
+	}
+
+	@Test
+	void largeResponsesAreGzippedSmallOnesAreNot() throws Exception {
+		HttpResponse<byte[]> plain = get("/api/groceries", "application/json", "identity");
+		HttpResponse<byte[]> gzip = get("/api/groceries", "application/json", "gzip");
+		HttpResponse<byte[]> cborGzip = get("/api/groceries", "application/cbor", "gzip");
+
+		assertThat(gzip.headers().firstValue("Content-Encoding")).hasValue("gzip");
+		assertThat(json.readTree(gunzip(gzip.body()))).isEqualTo(json.readTree(plain.body()));
+		assertThat(gzip.body().length).isLessThan(plain.body().length / 3);
+		record("list json + gzip", gzip);
+		record("list cbor + gzip", cborGzip);
+
+		// A single product is below server.compression.min-response-size: compressing it would not pay
+		HttpResponse<byte[]> single = get("/api/groceries/" + productId, "application/json", "gzip");
+		assertThat(single.headers().firstValue("Content-Encoding")).isEmpty();
+		record("single json (gzip requested)", single);
+		record("single cbor", get("/api/groceries/" + productId, "application/cbor", "identity"));
+	}
+
+	@Test
+	void sparseFieldsetsReturnOnlyTheRequestedProperties() throws Exception {
+		HttpResponse<byte[]> full = get("/api/groceries", "application/json", "identity");
+		HttpResponse<byte[]> sparse = get("/api/groceries?fields=id,name,price", "application/json", "identity");
+		HttpResponse<byte[]> sparseCbor = get("/api/groceries?fields=id,name,price", "application/cbor", "identity");
+
+		JsonNode first = json.readTree(sparse.body()).get(0);
+		assertThat(first.properties()).extracting(Map.Entry::getKey).containsExactlyInAnyOrder("id", "name", "price");
+		assertThat(sparse.body().length).isLessThan(full.body().length / 2);
+		assertThat(new ObjectMapper(new CBORFactory()).readTree(sparseCbor.body())).isEqualTo(json.readTree(sparse.body()));
+
+		JsonNode single = json.readTree(get("/api/groceries/" + productId + "?fields=name", "application/json", "identity").body());
+		assertThat(single.properties()).extracting(Map.Entry::getKey).containsExactly("name");
+		record("list json ?fields=id,name,price", sparse);
+		record("list cbor ?fields=id,name,price", sparseCbor);
+	}
+
+	// -------------------------------
+	// HELPERS
+	// -------------------------------
+	private HttpResponse<byte[]> get(String path, String accept, String encoding) throws IOException, InterruptedException {
+		HttpResponse<byte[]> response = client.send(HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+				.header("Accept", accept)
+				.header("Accept-Encoding", encoding)
+				.build(), HttpResponse.BodyHandlers.ofByteArray());
+		assertThat(response.statusCode()).isEqualTo(200);
+		return response;
+	}
+
+	private static byte[] gunzip(byte[] body) throws IOException {
+		try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(body))) {
+			return in.readAllBytes();
+		}
+	}
+
+	private static void record(String label, HttpResponse<byte[]> response) {
+		log.atInfo().setMessage("Catalog response size")
+				.addKeyValue("response", label).addKeyValue("bytes", response.body().length).log();
+	}
+}
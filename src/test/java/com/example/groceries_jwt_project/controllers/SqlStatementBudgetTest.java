@@ -0,0 +1,219 @@
+package com.example.groceries_jwt_project.controllers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultMatcher;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import com.example.groceries_jwt_project.entity.Cart;
+import com.example.groceries_jwt_project.entity.Groceries;
+import com.example.groceries_jwt_project.entity.User;
+import com.example.groceries_jwt_project.repository.CartRepository;
+import com.example.groceries_jwt_project.repository.GroceriesRepository;
+import com.example.groceries_jwt_project.repository.UserRepository;
+import com.example.groceries_jwt_project.security.JwtUtil;
+
+/**
+ * Upper bounds on the SQL statements each endpoint may execute, to catch N+1 regressions.
+ * Every authenticated request pays 1 statement in JwtAuthFilter (user lookup).
+ * If a budget fails, the message lists every statement the request ran.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@Import(SqlStatementRecorder.class)
+class SqlStatementBudgetTest {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private JwtUtil jwtUtil;
+
+	@Autowired
+	private PasswordEncoder passwordEncoder;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private GroceriesRepository groceriesRepository;
+
+	@Autowired
+	private CartRepository cartRepository;
+
+	private User user;
+	private String userToken;
+	private String adminToken;
+	private Long productId;
+
+	@BeforeEach
+	void seed() {
+		String suffix = Long.toString(System.nanoTime());
+		user = userRepository.save(new User(null, "budget-user-" + suffix, passwordEncoder.encode("secret"), "ROLE_USER"));
+		User admin = userRepository.save(new User(null, "budget-admin-" + suffix, "x", "ROLE_ADMIN"));
+		userToken = token(user);
+		adminToken = token(admin);
+		productId = product(1_000).getId();
+	}
+
+	// -------------------------------
+	// AuthController
+	// -------------------------------
+	@Test
+	void register() throws Exception {
+		expectAtMost(2, post("/auth/register").contentType(MediaType.APPLICATION_JSON)
+				.content(credentials("budget-new-" + System.nanoTime())), status().isOk());
+	}
+
+	@Test
+	void login() throws Exception {
+		expectAtMost(1, post("/auth/login").contentType(MediaType.APPLICATION_JSON)
+				.content(credentials(user.getUsername())), status().isOk());
+	}
+
+	@Test
+	void logout() throws Exception {
+		expectAtMost(2, post("/auth/logout").header(HttpHeaders.AUTHORIZATION, "Bearer " + userToken),
+				status().isOk());
+	}
+
+	// -------------------------------
+	// GroceriesController
+	// -------------------------------
+	@Test
+	void listProducts() throws Exception {
+		expectAtMost(1, get("/api/groceries"), status().isOk());
+	}
+
+	@Test
+	void getProduct() throws Exception {
+		expectAtMost(1, get("/api/groceries/" + productId), status().isOk());
+	}
+
+	@Test
+	void createProduct() throws Exception {
+		expectAtMost(2, asAdmin(post("/api/groceries")).contentType(MediaType.APPLICATION_JSON)
+				.content("{\"name\":\"budget\",\"price\":1.0,\"quantity\":5}"), status().isCreated());
+	}
+
+	@Test
+	void updateProduct() throws Exception {
+		expectAtMost(3, asAdmin(put("/api/groceries/" + productId)).contentType(MediaType.APPLICATION_JSON)
+				.content("{\"name\":\"budget\",\"price\":2.0,\"quantity\":5}"), status().isOk());
+	}
+
+	@Test
+	void deleteProduct() throws Exception {
+		expectAtMost(4, asAdmin(delete("/api/groceries/" + productId)), status().is2xxSuccessful());
+	}
+
+	// -------------------------------
+	// CartController
+	// -------------------------------
+	@Test
+	void addToCart() throws Exception {
+		expectAtMost(3, asUser(post("/api/cart/add?productId=" + productId + "&quantity=1")), status().isOk());
+	}
+
+	@Test
+	void viewCart() throws Exception {
+		cartLines(5);
+		expectAtMost(2, asUser(get("/api/cart")), status().isOk());
+	}
+
+	@Test
+	void removeFromCart() throws Exception {
+		Long itemId = cartLines(1).get(0).getId();
+		expectAtMost(4, asUser(delete("/api/cart/remove/" + itemId)), status().isOk());
+	}
+
+	// Load cart + claim cart + one decrement per distinct product (+ user lookup): 3 + N
+	@ParameterizedTest
+	@ValueSource(ints = { 1, 3, 10 })
+	void checkoutIsLinearInDistinctProducts(int lines) throws Exception {
+		cartLines(lines);
+		expectAtMost(3 + lines, asUser(post("/api/cart/checkout")), status().isOk());
+	}
+
+	// -------------------------------
+	// JwksController / FlightRecordingController
+	// -------------------------------
+	@Test
+	void jwks() throws Exception {
+		expectAtMost(0, get("/.well-known/jwks.json"), status().isOk());
+	}
+
+	@Test
+	void stopFlightRecordingWithoutOne() throws Exception {
+		expectAtMost(1, asAdmin(post("/api/admin/jfr/stop")), status().isConflict());
+	}
+
+	// -------------------------------
+	// HELPERS
+	// -------------------------------
+	private void expectAtMost(int budget, MockHttpServletRequestBuilder request, ResultMatcher expectedStatus)
+			throws Exception {
+		List<String> statements = SqlStatementRecorder.start();
+		try {
+			mockMvc.perform(request).andExpect(expectedStatus);
+		} finally {
+			SqlStatementRecorder.stop();
+		}
+		assertThat(statements.size())
+				.withFailMessage(() -> String.format("%s %s executed %d SQL statements, budget is %d:%n%s",
+						request.buildRequest(null).getMethod(), request.buildRequest(null).getRequestURI(),
+						statements.size(), budget, IntStream.range(0, statements.size())
+								.mapToObj(i -> "  " + (i + 1) + ". " + statements.get(i))
+								.collect(Collectors.joining(System.lineSeparator()))))
+				.isLessThanOrEqualTo(budget);
+	}
+
+	private List<Cart> cartLines(int lines) {
+		return IntStream.range(0, lines)
+				.mapToObj(i -> cartRepository.save(Cart.builder().userId(user.getId())
+						.productId(product(100).getId()).quantity(1).totalPrice(1.0).build()))
+				.toList();
+	}
+
+	private Groceries product(int stock) {
+		return groceriesRepository.save(Groceries.builder().name("budget-product").price(1.0).quantity(stock).build());
+	}
+
+	private MockHttpServletRequestBuilder asUser(MockHttpServletRequestBuilder request) {
+		return request.header(HttpHeaders.AUTHORIZATION, "Bearer " + userToken);
+	}
+
+	private MockHttpServletRequestBuilder asAdmin(MockHttpServletRequestBuilder request) {
+		return request.header(HttpHeaders.AUTHORIZATION, "Bearer " + adminToken);
+	}
+
+	private String token(User account) {
+		return jwtUtil.generateToken(new UsernamePasswordAuthenticationToken(account.getUsername(), null));
+	}
+
+	private static String credentials(String username) {
+		return "{\"username\":\"" + username + "\",\"password\":\"secret\"}";
+	}
+}
@@ -0,0 +1,75 @@
+package com.example.groceries_jwt_project.controllers;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+
+/**
+ * Wraps the application DataSource in a datasource-proxy that records every SQL statement
+ * executed on the current thread while recording is on. Catches everything that reaches JDBC
+ * (Hibernate, Spring Data @Query, JdbcTemplate), not just what Hibernate prepares.
+ *
+ * MockMvc runs the whole request on the test thread, so statements from schedulers or
+ * other tests' threads never end up in a recording.
+ */
+@TestConfiguration(proxyBeanMethods = false)
+class SqlStatementRecorder {
+
+	private static final ThreadLocal<List<String>> RECORDING = new ThreadLocal<>();
+
+	/** Start recording on this thread; the returned list fills up until stop(). */
+	static List<String> start() {
+		List<String> statements = new ArrayList<>();
+		RECORDING.set(statements);
+		return statements;
+	}
+
+	static void stop() {
+		RECORDING.remove();
+	}
+
+	@Bean
+	static BeanPostProcessor sqlRecordingDataSourcePostProcessor() {
+		return new BeanPostProcessor() {
+			@Override
+			public Object postProcessAfterInitialization(Object bean, String beanName) {
+				if (bean instanceof DataSource dataSource && !(bean instanceof ProxyDataSource)) {
+					return ProxyDataSourceBuilder.create(dataSource).name(beanName).listener(new Listener()).build();
+				}
+				return bean;
+			}
+		};
+	}
+
+	private static final class Listener implements QueryExecutionListener {
+
+		@Override
+		public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+		}
+
+		@Override
+		public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+			List<String> statements = RECORDING.get();
+			if (statements == null) {
+				return;
+			}
+			// One entry per round trip: a JDBC batch counts once, with its size
+			for (QueryInfo query : queryInfoList) {
+				statements.add(execInfo.isBatch()
+						? "[batch x" + execInfo.getBatchSize() + "] " + query.getQuery()
+						: query.getQuery());
+			}
+		}
+	}
+}
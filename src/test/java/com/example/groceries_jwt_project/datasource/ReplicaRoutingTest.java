@@ -0,0 +1,217 @@
+package com.example.groceries_jwt_project.datasource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.groceries_jwt_project.entity.Groceries;
+import com.example.groceries_jwt_project.entity.User;
+import com.example.groceries_jwt_project.repository.GroceriesRepository;
+import com.example.groceries_jwt_project.repository.UserRepository;
+import com.example.groceries_jwt_project.security.MyUserDetails;
+import com.example.groceries_jwt_project.service.CartService;
+import com.example.groceries_jwt_project.service.GroceriesService;
+
+/**
+ * Replica routing against three embedded H2 databases: a primary and two "replicas".
+ * Each database holds one differently named product, so the rows that come back show
+ * which database served the read. Nothing is replicated: a cart row written to the primary
+ * is only visible while the read-your-writes window keeps the user on the primary.
+ */
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:routing_primary;" + ReplicaRoutingTest.H2_MODE,
+		"app.datasource.replicas.urls=" + ReplicaRoutingTest.REPLICA_A + ";IFEXISTS=TRUE,"
+				+ ReplicaRoutingTest.REPLICA_B + ";IFEXISTS=TRUE",
+		"app.datasource.replicas.connection-timeout-ms=500",
+		"app.datasource.replicas.health-check-ms=3600000",
+		"app.datasource.read-your-writes-ms=300" })
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+@DirtiesContext
+class ReplicaRoutingTest {
+
+	static final String H2_MODE = "MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1";
+	static final String REPLICA_A = "jdbc:h2:mem:routing_replica_a;" + H2_MODE;
+	static final String REPLICA_B = "jdbc:h2:mem:routing_replica_b;" + H2_MODE;
+
+	@Autowired
+	private GroceriesService groceriesService;
+
+	@Autowired
+	private CartService cartService;
+
+	@Autowired
+	private GroceriesRepository groceriesRepository;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private ReplicaRoutingDataSource routingDataSource;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	// The replicas exist (same schema, own data) before the context starts, as a real replica would
+	@BeforeAll
+	static void createReplicas() throws SQLException {
+		createReplica(REPLICA_A, "replica-a");
+		createReplica(REPLICA_B, "replica-b");
+	}
+
+	private Long primaryProductId;
+
+	// Read-write transaction, so the existence check sees the primary and not a replica
+	@BeforeEach
+	void seedPrimary() {
+		primaryProductId = new TransactionTemplate(transactionManager).execute(status -> groceriesRepository.findAll()
+				.stream().findFirst()
+				.orElseGet(() -> groceriesRepository.save(Groceries.builder().name("primary").price(1.0).quantity(100).build()))
+				.getId());
+		routingDataSource.setSelection(ReplicaRoutingDataSource.Selection.ROUND_ROBIN);
+		routingDataSource.checkReplicas();
+	}
+
+	@AfterEach
+	void clearUser() {
+		SecurityContextHolder.clearContext();
+	}
+
+	@Test
+	@Order(1)
+	void readOnlyTransactionsAlternateBetweenReplicas() {
+		List<String> servedBy = List.of(servedBy(groceriesService.getAll()), servedBy(groceriesService.getAll()),
+				servedBy(groceriesService.getAll()), servedBy(groceriesService.getAll()));
+
+		assertThat(servedBy).containsOnly("replica-a", "replica-b");
+		assertThat(servedBy.get(0)).isNotEqualTo(servedBy.get(1));
+		assertThat(servedBy.get(0)).isEqualTo(servedBy.get(2));
+	}
+
+	@Test
+	@Order(2)
+	void readWriteTransactionsStayOnThePrimary() {
+		// Spring Data's own finders are read-only, so the read-write transaction has to come from the caller
+		String servedBy = new TransactionTemplate(transactionManager)
+				.execute(status -> servedBy(groceriesRepository.findAll()));
+		assertThat(servedBy).isEqualTo("primary");
+	}
+
+	@Test
+	@Order(3)
+	void leastLoadedSkipsTheReplicaThatIsBusy() throws Exception {
+		routingDataSource.setSelection(ReplicaRoutingDataSource.Selection.LEAST_LOADED);
+		TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+		readOnly.setReadOnly(true);
+
+		readOnly.executeWithoutResult(status -> {
+			// This transaction holds a connection to the first replica until it ends
+			assertThat(servedBy(groceriesRepository.findAll())).isEqualTo("replica-a");
+			String concurrent = CompletableFuture.supplyAsync(() -> servedBy(groceriesService.getAll())).join();
+			assertThat(concurrent).isEqualTo("replica-b");
+		});
+	}
+
+	@Test
+	@Order(4)
+	void ownCartWritesAreReadFromThePrimaryForAWhile() throws InterruptedException {
+		User writer = userRepository.save(new User(null, "routing-writer-" + System.nanoTime(), "x", "ROLE_USER"));
+		User reader = userRepository.save(new User(null, "routing-reader-" + System.nanoTime(), "x", "ROLE_USER"));
+
+		signIn(writer);
+		cartService.addItem(primaryProductId, 1);
+		assertThat(cartService.getCartItems()).hasSize(1); // primary: sees its own write
+
+		signIn(reader);
+		assertThat(routedTo()).isNotEqualTo("primary"); // other users keep reading from replicas
+
+		Thread.sleep(600);
+		signIn(writer);
+		assertThat(cartService.getCartItems()).isEmpty(); // window over: back on a replica, which lags
+	}
+
+	@Test
+	@Order(5)
+	void cachedLookupsAreFilledFromThePrimary() {
+		Groceries current = new TransactionTemplate(transactionManager)
+				.execute(status -> groceriesRepository.findById(primaryProductId).orElseThrow());
+		groceriesService.update(primaryProductId, Groceries.builder().name(current.getName()).price(current.getPrice())
+				.quantity(current.getQuantity() - 1).build());
+
+		// The update evicted the entry; the replicas never see it, so a replica read would cache the old row
+		Groceries found = groceriesService.findById(primaryProductId);
+		assertThat(found.getName()).isEqualTo("primary");
+		assertThat(found.getQuantity()).isEqualTo(current.getQuantity() - 1);
+		assertThat(groceriesService.findById(primaryProductId).getQuantity()).isEqualTo(current.getQuantity() - 1);
+	}
+
+	// Shuts the replicas down, so it runs last (the context is dirtied afterwards)
+	@Test
+	@Order(6)
+	void unhealthyReplicasFallBackToThePrimary() throws Exception {
+		shutdown(REPLICA_B);
+		routingDataSource.checkReplicas();
+		assertThat(routingDataSource.getReplicaHealth()).containsEntry("replica-1", true).containsEntry("replica-2", false);
+		assertThat(List.of(routedTo(), routedTo(), routedTo())).containsOnly("replica-a");
+
+		// Replica A fails between health checks. Once Hikari re-validates its idle connections (after 500 ms)
+		// the pool cannot hand one out, and that read goes to the primary instead of failing
+		shutdown(REPLICA_A);
+		Thread.sleep(600);
+		assertThat(routedTo()).isEqualTo("primary");
+		assertThat(routingDataSource.getReplicaHealth()).containsEntry("replica-1", false);
+		assertThat(routedTo()).isEqualTo("primary");
+	}
+
+	// -------------------------------
+	// HELPERS
+	// -------------------------------
+	private String routedTo() {
+		return servedBy(groceriesService.getAll());
+	}
+
+	private static String servedBy(List<Groceries> rows) {
+		return rows.get(0).getName();
+	}
+
+	private static void signIn(User user) {
+		SecurityContextHolder.getContext()
+				.setAuthentication(new UsernamePasswordAuthenticationToken(new MyUserDetails(user), null, List.of()));
+	}
+
+	private static void createReplica(String url, String productName) throws SQLException {
+		Flyway.configure().dataSource(url, "sa", "").load().migrate();
+		try (Connection connection = DriverManager.getConnection(url, "sa", "");
+				Statement statement = connection.createStatement()) {
+			statement.execute("DELETE FROM groceries");
+			statement.execute("INSERT INTO groceries (name, price, quantity) VALUES ('" + productName + "', 1.0, 100)");
+		}
+	}
+
+	private static void shutdown(String url) throws SQLException {
+		try (Connection connection = DriverManager.getConnection(url, "sa", "");
+				Statement statement = connection.createStatement()) {
+			statement.execute("SHUTDOWN");
+		}
+	}
+}
@@ -0,0 +1,168 @@
+package com.example.groceries_jwt_project.inventory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.offset;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.example.groceries_jwt_project.entity.Groceries;
+import com.example.groceries_jwt_project.entity.User;
+import com.example.groceries_jwt_project.repository.GroceriesRepository;
+import com.example.groceries_jwt_project.repository.UserRepository;
+import com.example.groceries_jwt_project.security.JwtUtil;
+import com.example.groceries_jwt_project.security.MyUserDetails;
+import com.example.groceries_jwt_project.service.CartService;
+import com.example.groceries_jwt_project.service.GroceriesService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Create → checkout → restock → GET /api/admin/inventory/forecast, all through the services that move stock.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class InventoryForecastTest {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private GroceriesService groceriesService;
+
+	@Autowired
+	private CartService cartService;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private JwtUtil jwtUtil;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Autowired
+	private GroceriesRepository groceriesRepository;
+
+	@Autowired
+	private InventoryVelocityService inventoryVelocityService;
+
+	@AfterEach
+	void clearUser() {
+		SecurityContextHolder.clearContext();
+	}
+
+	@Test
+	void committedSalesDriveVelocityAndCover() throws Exception {
+		Groceries fast = groceriesService.save(product("fast", 10));
+		Groceries slow = groceriesService.save(product("slow", 1_000));
+		Groceries idle = groceriesService.save(product("idle", 5));
+
+		checkout(fast, 3);
+		checkout(slow, 1);
+
+		JsonNode fastForecast = forecastOf(fast.getId());
+		assertThat(fastForecast.get("stock").asInt()).isEqualTo(7);
+		assertThat(fastForecast.get("soldLastHour").asInt()).isEqualTo(3);
+		assertThat(fastForecast.get("soldLast7Days").asInt()).isEqualTo(3);
+		assertThat(fastForecast.get("sellThrough7d").asDouble()).isEqualTo(0.3);
+		double unitsPerDay = fastForecast.get("unitsPerDay").asDouble();
+		assertThat(fastForecast.get("daysOfCover").asDouble()).isCloseTo(7 / unitsPerDay, offset(1e-9));
+
+		assertThat(forecastOf(slow.getId()).get("daysOfCover").asDouble())
+				.isGreaterThan(fastForecast.get("daysOfCover").asDouble());
+		assertThat(forecastOf(idle.getId()).get("daysOfCover").isNull()).isTrue();
+
+		// A restock through the admin update replaces the tracked level; the sales stay
+		groceriesService.update(fast.getId(), product("fast", 200));
+		assertThat(forecastOf(fast.getId()).get("stock").asInt()).isEqualTo(200);
+		assertThat(forecastOf(fast.getId()).get("soldLast7Days").asInt()).isEqualTo(3);
+	}
+
+	@Test
+	void withinDaysKeepsOnlyWhatRunsOutInTime() throws Exception {
+		Groceries scarce = groceriesService.save(product("scarce", 2));
+		checkout(scarce, 1);
+
+		JsonNode soon = forecast("?withinDays=1");
+		assertThat(soon.findValuesAsText("productId")).contains(scarce.getId().toString());
+		for (JsonNode forecast : soon) {
+			assertThat(forecast.get("daysOfCover").asDouble()).isLessThanOrEqualTo(1.0);
+		}
+	}
+
+	@Test
+	void deletedProductsLeaveTheForecast() throws Exception {
+		Groceries gone = groceriesService.save(product("gone", 3));
+		groceriesService.delete(gone.getId());
+
+		assertThat(forecast("").findValuesAsText("productId")).doesNotContain(gone.getId().toString());
+	}
+
+	@Test
+	void refreshPicksUpChangesMadeOnOtherInstances() throws Exception {
+		Groceries restocked = groceriesService.save(product("elsewhere", 10));
+		Groceries removed = groceriesService.save(product("removed-elsewhere", 10));
+		checkout(restocked, 2);
+
+		// Written straight to the table: no StockMovementEvent reaches this instance
+		Groceries row = groceriesRepository.findById(restocked.getId()).orElseThrow();
+		row.setQuantity(50);
+		groceriesRepository.save(row);
+		groceriesRepository.deleteById(removed.getId());
+		assertThat(forecastOf(restocked.getId()).get("stock").asInt()).isEqualTo(8);
+
+		inventoryVelocityService.refreshStockLevels();
+
+		JsonNode forecast = forecastOf(restocked.getId());
+		assertThat(forecast.get("stock").asInt()).isEqualTo(50);
+		assertThat(forecast.get("soldLast7Days").asInt()).isEqualTo(2); // own sales are kept
+		assertThat(forecast("").findValuesAsText("productId")).doesNotContain(removed.getId().toString());
+	}
+
+	// -------------------------------
+	// HELPERS
+	// -------------------------------
+	private JsonNode forecastOf(Long productId) throws Exception {
+		for (JsonNode forecast : forecast("")) {
+			if (forecast.get("productId").asLong() == productId) {
+				return forecast;
+			}
+		}
+		throw new AssertionError("No forecast for product " + productId);
+	}
+
+	private JsonNode forecast(String query) throws Exception {
+		User admin = userRepository.save(new User(null, "inventory-admin-" + System.nanoTime(), "x", "ROLE_ADMIN"));
+		String token = jwtUtil.generateToken(new UsernamePasswordAuthenticationToken(admin.getUsername(), null));
+		String body = mockMvc.perform(get("/api/admin/inventory/forecast" + query)
+				.header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+				.andExpect(status().isOk()).andReturn().getResponse().getContentAsString();
+		return objectMapper.readTree(body);
+	}
+
+	private void checkout(Groceries product, int quantity) {
+		User user = userRepository.save(new User(null, "inventory-" + System.nanoTime(), "x", "ROLE_USER"));
+		SecurityContextHolder.getContext()
+				.setAuthentication(new UsernamePasswordAuthenticationToken(new MyUserDetails(user), null, List.of()));
+		cartService.addItem(product.getId(), quantity);
+		cartService.checkout();
+		SecurityContextHolder.clearContext();
+	}
+
+	private static Groceries product(String name, int quantity) {
+		return Groceries.builder().name(name + "-" + System.nanoTime()).price(1.0).quantity(quantity).build();
+	}
+}
@@ -0,0 +1,71 @@
+package com.example.groceries_jwt_project.inventory;
+
+import static com.example.groceries_jwt_project.inventory.StockRollup.DAY_MS;
+import static com.example.groceries_jwt_project.inventory.StockRollup.HOUR_MS;
+import static com.example.groceries_jwt_project.inventory.StockRollup.MINUTE_MS;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+class StockRollupTest {
+
+	// Midnight UTC, so day buckets line up with the test's arithmetic
+	private static final long T0 = 1_767_571_200_000L;
+
+	@Test
+	void salesCountInEveryWindowAndLowerTheStock() {
+		StockRollup rollup = new StockRollup(100, T0);
+		rollup.sold(3, T0 + MINUTE_MS);
+		rollup.sold(2, T0 + 10 * MINUTE_MS);
+
+		long now = T0 + 30 * MINUTE_MS;
+		assertThat(rollup.stock()).isEqualTo(95);
+		assertThat(rollup.soldLastHour(now)).isEqualTo(5);
+		assertThat(rollup.soldLast24Hours(now)).isEqualTo(5);
+		assertThat(rollup.soldLastDays(7, now)).isEqualTo(5);
+	}
+
+	@Test
+	void oldSalesLeaveTheShortWindowsFirst() {
+		StockRollup rollup = new StockRollup(100, T0);
+		rollup.sold(4, T0);
+		rollup.sold(1, T0 + 5 * HOUR_MS);
+
+		long now = T0 + 5 * HOUR_MS + 30 * MINUTE_MS;
+		assertThat(rollup.soldLastHour(now)).isEqualTo(1);
+		assertThat(rollup.soldLast24Hours(now)).isEqualTo(5);
+
+		now = T0 + 2 * DAY_MS;
+		assertThat(rollup.soldLastHour(now)).isZero();
+		assertThat(rollup.soldLast24Hours(now)).isZero();
+		assertThat(rollup.soldLastDays(1, now)).isZero();
+		assertThat(rollup.soldLastDays(3, now)).isEqualTo(5);
+	}
+
+	// Buckets reused after a full lap must not carry the previous lap's sales
+	@Test
+	void aRingThatWrapsAroundStartsItsBucketsFromZero() {
+		StockRollup rollup = new StockRollup(1_000, T0);
+		for (int minute = 0; minute < 60; minute++) {
+			rollup.sold(1, T0 + minute * MINUTE_MS);
+		}
+		assertThat(rollup.soldLastHour(T0 + 59 * MINUTE_MS)).isEqualTo(60);
+
+		rollup.sold(10, T0 + 61 * MINUTE_MS); // minute 0 and 1 of the old lap are zeroed
+		assertThat(rollup.soldLastHour(T0 + 61 * MINUTE_MS)).isEqualTo(58 + 10);
+
+		assertThat(rollup.soldLastDays(28, T0 + 27 * DAY_MS)).isEqualTo(70);
+		assertThat(rollup.soldLastDays(28, T0 + 28 * DAY_MS)).isZero();
+		assertThat(rollup.soldLastDays(28, T0 + 100 * DAY_MS)).isZero();
+	}
+
+	@Test
+	void aNewStockLevelReplacesTheTrackedOne() {
+		StockRollup rollup = new StockRollup(10, T0);
+		rollup.sold(4, T0);
+		rollup.setStock(50); // restocked
+
+		assertThat(rollup.stock()).isEqualTo(50);
+		assertThat(rollup.soldLastDays(7, T0 + HOUR_MS)).isEqualTo(4);
+	}
+}
@@ -0,0 +1,121 @@
+package com.example.groceries_jwt_project.jfr;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.example.groceries_jwt_project.entity.User;
+import com.example.groceries_jwt_project.repository.UserRepository;
+import com.example.groceries_jwt_project.security.JwtUtil;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import jdk.jfr.consumer.RecordingStream;
+
+/**
+ * The custom JFR events and the admin recording endpoints, on the running application.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class FlightRecordingTest {
+
+	private static final String REPOSITORY_CALL = "groceries.RepositoryCall";
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private FlightRecordingService recordingService;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private JwtUtil jwtUtil;
+
+	@AfterEach
+	void stopRecording() throws Exception {
+		if (recordingService.isRunning()) {
+			recordingService.stop();
+		}
+	}
+
+	@Test
+	void repositoryCallsEmitTheCustomEvent() throws Exception {
+		User user = userRepository.save(new User(null, "jfr-" + System.nanoTime(), "x", "ROLE_USER"));
+		List<RecordedEvent> events = new CopyOnWriteArrayList<>();
+		CountDownLatch seen = new CountDownLatch(1);
+		try (RecordingStream stream = new RecordingStream()) {
+			stream.enable(REPOSITORY_CALL).withThreshold(Duration.ZERO);
+			stream.onEvent(REPOSITORY_CALL, event -> {
+				if ("findByUsername".equals(event.getString("method"))) {
+					events.add(event);
+					seen.countDown();
+				}
+			});
+			stream.startAsync();
+
+			userRepository.findByUsername(user.getUsername());
+
+			assertThat(seen.await(10, TimeUnit.SECONDS)).isTrue();
+		}
+		RecordedEvent event = events.get(0);
+		assertThat(event.getString("repository")).isEqualTo("UserRepository");
+		assertThat(event.getString("entityType")).isEqualTo("User");
+		assertThat(event.getLong("rowCount")).isEqualTo(1);
+	}
+
+	@Test
+	void adminRecordsAndGetsAFileWithTheDomainEvents() throws Exception {
+		String admin = token("ROLE_ADMIN");
+		mockMvc.perform(post("/api/admin/jfr/start").header(HttpHeaders.AUTHORIZATION, admin).param("thresholdMs", "0"))
+				.andExpect(status().isOk());
+		mockMvc.perform(post("/api/admin/jfr/start").header(HttpHeaders.AUTHORIZATION, admin))
+				.andExpect(status().isConflict());
+
+		mockMvc.perform(get("/api/cart").header(HttpHeaders.AUTHORIZATION, admin)).andExpect(status().isOk());
+
+		String file = mockMvc.perform(post("/api/admin/jfr/stop").header(HttpHeaders.AUTHORIZATION, admin))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsString();
+		Path recording = Path.of(file);
+		assertThat(recording).exists().hasExtension("jfr");
+		assertThat(RecordingFile.readAllEvents(recording)).extracting(event -> event.getEventType().getName())
+				.contains(REPOSITORY_CALL, "groceries.JwtVerify");
+		Files.delete(recording);
+	}
+
+	@Test
+	void recordingEndpointsAreAdminOnly() throws Exception {
+		mockMvc.perform(post("/api/admin/jfr/start").header(HttpHeaders.AUTHORIZATION, token("ROLE_USER")))
+				.andExpect(status().isForbidden());
+		mockMvc.perform(post("/api/admin/jfr/start")).andExpect(status().isUnauthorized());
+		assertThat(recordingService.isRunning()).isFalse();
+	}
+
+	// -------------------------------
+	// HELPERS
+	// -------------------------------
+	private String token(String role) {
+		User user = userRepository.save(new User(null, "jfr-" + role + "-" + System.nanoTime(), "x", role));
+		return "Bearer " + jwtUtil.generateToken(new UsernamePasswordAuthenticationToken(user.getUsername(), null));
+	}
+}
@@ -0,0 +1,73 @@
+package com.example.groceries_jwt_project.jfr;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.JRE;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * The monitor against a real pinned virtual thread. The build targets Java 17, so this only runs when
+ * the tests run on JDK 21 to 23: virtual threads start at 21, and from 24 on sleeping inside
+ * synchronized no longer pins (JEP 491). Virtual threads are created through reflection for the same reason.
+ */
+class VirtualThreadPinningMonitorTest {
+
+	@Test
+	@EnabledForJreRange(min = JRE.JAVA_21, max = JRE.JAVA_23)
+	void pinnedCarrierIsCountedAtTheFrameInOurCode() throws Exception {
+		SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+		VirtualThreadPinningMonitor monitor = monitor(meterRegistry);
+		ExecutorService virtualThreads = (ExecutorService) Executors.class
+				.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+		try {
+			long deadline = System.currentTimeMillis() + 10_000;
+			while (meterRegistry.find("jvm.threads.virtual.pinned").counter() == null
+					&& System.currentTimeMillis() < deadline) {
+				virtualThreads.submit(() -> {
+					sleepHoldingAMonitor();
+					return null;
+				}).get();
+			}
+		} finally {
+			virtualThreads.shutdown();
+			virtualThreads.awaitTermination(5, TimeUnit.SECONDS);
+			monitor.stop();
+		}
+
+		Counter pinned = meterRegistry.find("jvm.threads.virtual.pinned").counter();
+		assertThat(pinned).isNotNull();
+		assertThat(pinned.getId().getTag("site")).startsWith("jfr.VirtualThreadPinningMonitorTest.sleepHoldingAMonitor:");
+	}
+
+	@Test
+	@EnabledForJreRange(max = JRE.JAVA_20)
+	void doesNotStartBeforeJava21() {
+		VirtualThreadPinningMonitor monitor = monitor(new SimpleMeterRegistry());
+		assertThat(monitor.isRunning()).isFalse();
+		monitor.stop();
+	}
+
+	// -------------------------------
+	// HELPERS
+	// -------------------------------
+	private static VirtualThreadPinningMonitor monitor(SimpleMeterRegistry meterRegistry) {
+		VirtualThreadPinningMonitor monitor = new VirtualThreadPinningMonitor(meterRegistry);
+		ReflectionTestUtils.setField(monitor, "thresholdMs", 10L);
+		ReflectionTestUtils.setField(monitor, "logsPerSecond", 1);
+		monitor.start();
+		return monitor;
+	}
+
+	private synchronized void sleepHoldingAMonitor() throws InterruptedException {
+		Thread.sleep(50); // blocks inside synchronized: the virtual thread cannot unmount
+	}
+}
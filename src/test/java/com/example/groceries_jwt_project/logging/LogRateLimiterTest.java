@@ -0,0 +1,57 @@
+package com.example.groceries_jwt_project.logging;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+class LogRateLimiterTest {
+
+	@Test
+	void letsThePermitsThroughThenSuppressesUntilTheWindowEnds() throws InterruptedException {
+		LogRateLimiter limiter = new LogRateLimiter(3);
+
+		assertThat(IntStream.range(0, 3).mapToLong(i -> limiter.tryAcquire())).containsOnly(0L);
+		assertThat(IntStream.range(0, 5).mapToLong(i -> limiter.tryAcquire())).containsOnly(-1L);
+
+		Thread.sleep(1_100);
+
+		// The first event of the new window reports what the previous one swallowed, once
+		assertThat(limiter.tryAcquire()).isEqualTo(5);
+		assertThat(limiter.tryAcquire()).isZero();
+		assertThat(limiter.tryAcquire()).isZero();
+		assertThat(limiter.tryAcquire()).isEqualTo(-1);
+	}
+
+	@Test
+	void concurrentCallersGetExactlyThePermits() throws InterruptedException {
+		LogRateLimiter limiter = new LogRateLimiter(10);
+		AtomicInteger allowed = new AtomicInteger();
+		CountDownLatch start = new CountDownLatch(1);
+		ExecutorService pool = Executors.newFixedThreadPool(4);
+		for (int i = 0; i < 200; i++) {
+			pool.execute(() -> {
+				try {
+					start.await();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+				if (limiter.tryAcquire() >= 0) {
+					allowed.incrementAndGet();
+				}
+			});
+		}
+		start.countDown();
+		pool.shutdown();
+		assertThat(pool.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+
+		// All 200 calls fall into one window (they take far less than a second)
+		assertThat(allowed).hasValue(10);
+	}
+}
@@ -0,0 +1,106 @@
+package com.example.groceries_jwt_project.metrics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.example.groceries_jwt_project.entity.Groceries;
+import com.example.groceries_jwt_project.entity.User;
+import com.example.groceries_jwt_project.repository.GroceriesRepository;
+import com.example.groceries_jwt_project.repository.UserRepository;
+import com.example.groceries_jwt_project.security.JwtUtil;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * The custom request metrics, read back from the registry after real requests:
+ * http.server.requests.sql.statements (SqlStatementMetricsFilter) and cart.checkout.stage (CheckoutMetrics).
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class RequestMetricsTest {
+
+	private static final String SQL_STATEMENTS = "http.server.requests.sql.statements";
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@Autowired
+	private JwtUtil jwtUtil;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private GroceriesRepository groceriesRepository;
+
+	@Test
+	void statementsPerRequestAreRecordedByUriTemplate() throws Exception {
+		String token = token(userRepository.save(new User(null, "metrics-" + System.nanoTime(), "x", "ROLE_USER")));
+		long before = requests("/api/cart", "GET");
+
+		mockMvc.perform(get("/api/cart").header(HttpHeaders.AUTHORIZATION, token)).andExpect(status().isOk());
+		mockMvc.perform(get("/api/cart").header(HttpHeaders.AUTHORIZATION, token)).andExpect(status().isOk());
+
+		assertThat(requests("/api/cart", "GET")).isEqualTo(before + 2);
+		// User lookup in the JWT filter + the cart query
+		assertThat(meterRegistry.get(SQL_STATEMENTS).tags("uri", "/api/cart", "method", "GET").summary().max())
+				.isGreaterThanOrEqualTo(2);
+		// One meter per URI template and method, however many requests
+		assertThat(meterRegistry.find(SQL_STATEMENTS).tags("uri", "/api/cart", "method", "GET").summaries()).hasSize(1);
+
+		Groceries product = groceriesRepository.save(Groceries.builder().name("metrics").price(1.0).quantity(10).build());
+		mockMvc.perform(get("/api/groceries/" + product.getId())).andExpect(status().isOk());
+		assertThat(requests("/api/groceries/{id}", "GET")).isPositive();
+	}
+
+	@Test
+	void checkoutRecordsEveryStage() throws Exception {
+		String token = token(userRepository.save(new User(null, "metrics-buyer-" + System.nanoTime(), "x", "ROLE_USER")));
+		Groceries product = groceriesRepository.save(Groceries.builder().name("metrics-sold").price(1.0).quantity(10).build());
+		List<String> stages = List.of("load_cart", "claim_cart", "decrement");
+		long[] before = stages.stream().mapToLong(this::checkouts).toArray();
+
+		mockMvc.perform(post("/api/cart/add").header(HttpHeaders.AUTHORIZATION, token)
+				.param("productId", product.getId().toString()).param("quantity", "2"))
+				.andExpect(status().isOk());
+		mockMvc.perform(post("/api/cart/checkout").header(HttpHeaders.AUTHORIZATION, token))
+				.andExpect(status().isOk());
+
+		for (int i = 0; i < stages.size(); i++) {
+			assertThat(checkouts(stages.get(i))).as(stages.get(i)).isEqualTo(before[i] + 1);
+		}
+	}
+
+	// -------------------------------
+	// HELPERS
+	// -------------------------------
+	// Requests recorded so far (0 before the first one registers the meter)
+	private long requests(String uri, String method) {
+		DistributionSummary summary = meterRegistry.find(SQL_STATEMENTS).tags("uri", uri, "method", method).summary();
+		return summary != null ? summary.count() : 0;
+	}
+
+	private long checkouts(String stage) {
+		return meterRegistry.get("cart.checkout.stage").tag("stage", stage).timer().count();
+	}
+
+	private String token(User user) {
+		return "Bearer " + jwtUtil.generateToken(new UsernamePasswordAuthenticationToken(user.getUsername(), null));
+	}
+}
@@ -0,0 +1,245 @@
+package com.example.groceries_jwt_project.provisioning;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.AdditionalAnswers;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.example.groceries_jwt_project.audit.AuditAction;
+import com.example.groceries_jwt_project.audit.AuditEvent;
+import com.example.groceries_jwt_project.audit.AuditLogRepository;
+import com.example.groceries_jwt_project.entity.User;
+import com.example.groceries_jwt_project.repository.UserRepository;
+import com.example.groceries_jwt_project.security.JwtUtil;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * POST /api/admin/users/bulk end to end. The chunk size is lowered so one request spans several chunks.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class UserProvisioningTest {
+
+	private static final int CHUNK_SIZE = 8;
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private UserProvisioningService userProvisioningService;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private PasswordEncoder passwordEncoder;
+
+	@Autowired
+	private JwtUtil jwtUtil;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Autowired
+	private UserBatchRepository userBatchRepository;
+
+	@Autowired
+	private AuditLogRepository auditLogRepository;
+
+	private int defaultChunkSize;
+
+	@BeforeEach
+	void smallChunks() {
+		defaultChunkSize = (int) ReflectionTestUtils.getField(userProvisioningService, "chunkSize");
+		ReflectionTestUtils.setField(userProvisioningService, "chunkSize", CHUNK_SIZE);
+	}
+
+	@AfterEach
+	void restoreChunks() {
+		ReflectionTestUtils.setField(userProvisioningService, "chunkSize", defaultChunkSize);
+		ReflectionTestUtils.setField(userProvisioningService, "userRepository", userRepository);
+	}
+
+	@Test
+	void reportsEveryUserInRequestOrder() throws Exception {
+		String prefix = "bulk-" + System.nanoTime() + "-";
+		userRepository.save(new User(null, prefix + "taken", "x", "ROLE_USER"));
+
+		List<Map<String, String>> users = new ArrayList<>();
+		for (int i = 0; i < 20; i++) {
+			users.add(Map.of("username", prefix + i, "password", "pw-" + i));
+		}
+		users.add(Map.of("username", prefix + "taken", "password", "pw"));
+		users.add(Map.of("username", prefix + "3", "password", "again"));
+		users.add(Map.of("username", prefix + "nopass", "password", " "));
+		users.add(Map.of("username", prefix + "boss", "password", "pw", "role", "ROLE_ADMIN"));
+		users.add(Map.of("username", prefix + "typo", "password", "pw", "role", "ROLE_ADMN"));
+
+		JsonNode report = provision(objectMapper.writeValueAsString(users));
+
+		assertThat(report.get("requested").asInt()).isEqualTo(25);
+		assertThat(report.get("created").asInt()).isEqualTo(21);
+		assertThat(report.get("duplicates").asInt()).isEqualTo(1);
+		assertThat(report.get("invalid").asInt()).isEqualTo(3);
+		JsonNode results = report.get("results");
+		assertThat(results.get(0).get("username").asText()).isEqualTo(prefix + "0");
+		assertThat(results.get(0).get("status").asText()).isEqualTo("CREATED");
+		assertThat(results.get(20).get("status").asText()).isEqualTo("DUPLICATE");
+		assertThat(results.get(21).get("detail").asText()).contains("more than once");
+		assertThat(results.get(22).get("detail").asText()).isEqualTo("Password is required");
+		assertThat(results.get(23).get("status").asText()).isEqualTo("CREATED");
+		assertThat(results.get(24).get("status").asText()).isEqualTo("INVALID");
+
+		User stored = userRepository.findByUsername(prefix + "7").orElseThrow();
+		assertThat(stored.getRole()).isEqualTo("ROLE_USER");
+		assertThat(passwordEncoder.matches("pw-7", stored.getPassword())).isTrue();
+		assertThat(userRepository.findByUsername(prefix + "boss").orElseThrow().getRole()).isEqualTo("ROLE_ADMIN");
+
+		// Provisioned users log in like registered ones
+		mockMvc.perform(post("/auth/login").contentType(MediaType.APPLICATION_JSON)
+				.content("{\"username\":\"" + prefix + "12\",\"password\":\"pw-12\"}"))
+				.andExpect(status().isOk());
+	}
+
+	@Test
+	void sendingTheSameListAgainCreatesNothing() throws Exception {
+		String prefix = "bulk-again-" + System.nanoTime() + "-";
+		List<Map<String, String>> users = new ArrayList<>();
+		for (int i = 0; i < 10; i++) {
+			users.add(Map.of("username", prefix + i, "password", "pw"));
+		}
+		String body = objectMapper.writeValueAsString(users);
+
+		assertThat(provision(body).get("created").asInt()).isEqualTo(10);
+		JsonNode again = provision(body);
+		assertThat(again.get("created").asInt()).isZero();
+		assertThat(again.get("duplicates").asInt()).isEqualTo(10);
+	}
+
+	@Test
+	void aBodyThatIsNotAUserArrayIsRejected() throws Exception {
+		mockMvc.perform(post("/api/admin/users/bulk").header(HttpHeaders.AUTHORIZATION, adminToken())
+				.contentType(MediaType.APPLICATION_JSON).content("{\"username\":\"x\"}"))
+				.andExpect(status().isBadRequest())
+				.andExpect(jsonPath("$.title").value("Invalid request"));
+		mockMvc.perform(post("/api/admin/users/bulk").header(HttpHeaders.AUTHORIZATION, adminToken())
+				.contentType(MediaType.APPLICATION_JSON).content("[{\"username\":\"x\", "))
+				.andExpect(status().isBadRequest());
+	}
+
+	@Test
+	void aBodyThatBreaksHalfwayReportsAndAuditsWhatWasCreated() throws Exception {
+		String prefix = "bulk-broken-" + System.nanoTime() + "-";
+		List<Map<String, String>> users = new ArrayList<>();
+		for (int i = 0; i < CHUNK_SIZE + 2; i++) {
+			users.add(Map.of("username", prefix + i, "password", "pw"));
+		}
+		String json = objectMapper.writeValueAsString(users);
+		String broken = json.substring(0, json.length() - 1) + ", 42]"; // first chunk is committed before the 42
+		User admin = userRepository.save(new User(null, "bulk-admin-" + System.nanoTime(), "x", "ROLE_ADMIN"));
+
+		mockMvc.perform(post("/api/admin/users/bulk").header(HttpHeaders.AUTHORIZATION, bearer(admin))
+				.contentType(MediaType.APPLICATION_JSON).content(broken))
+				.andExpect(status().isBadRequest())
+				.andExpect(jsonPath("$.report.created").value(CHUNK_SIZE))
+				.andExpect(jsonPath("$.report.results.length()").value(CHUNK_SIZE));
+		assertThat(userRepository.findByUsername(prefix + (CHUNK_SIZE - 1))).isPresent();
+		assertThat(userRepository.findByUsername(prefix + CHUNK_SIZE)).isEmpty(); // unfinished chunk
+
+		AuditEvent audit = awaitAudit(admin.getUsername());
+		assertThat(audit.success()).isFalse();
+		assertThat(audit.detail()).startsWith("created=" + CHUNK_SIZE + " ");
+	}
+
+	@Test
+	void aNameRegisteredAfterTheLookupFallsBackToRowByRowInserts() throws Exception {
+		String prefix = "bulk-race-" + System.nanoTime() + "-";
+		// Someone registers prefix + "2" between the lookup and the batch insert
+		UserRepository racing = mock(UserRepository.class, AdditionalAnswers.delegatesTo(userRepository));
+		doAnswer(invocation -> {
+			Collection<String> names = invocation.getArgument(0);
+			Object taken = userRepository.findExistingUsernames(names);
+			if (names.contains(prefix + "2")) {
+				userBatchRepository.insert(new NewUser(prefix + "2", "x", "ROLE_USER"));
+			}
+			return taken;
+		}).when(racing).findExistingUsernames(anyCollection());
+		ReflectionTestUtils.setField(userProvisioningService, "userRepository", racing);
+
+		List<Map<String, String>> users = new ArrayList<>();
+		for (int i = 0; i < 5; i++) {
+			users.add(Map.of("username", prefix + i, "password", "pw-" + i));
+		}
+		JsonNode report = provision(objectMapper.writeValueAsString(users));
+
+		assertThat(report.get("created").asInt()).isEqualTo(4);
+		assertThat(report.get("duplicates").asInt()).isEqualTo(1);
+		assertThat(report.get("results").get(2).get("status").asText()).isEqualTo("DUPLICATE");
+		assertThat(passwordEncoder.matches("pw-4", userRepository.findByUsername(prefix + 4).orElseThrow().getPassword()))
+				.isTrue();
+		assertThat(userRepository.findByUsername(prefix + 2).orElseThrow().getPassword()).isEqualTo("x");
+	}
+
+	@Test
+	void onlyAdminsMayProvision() throws Exception {
+		User user = userRepository.save(new User(null, "bulk-plain-" + System.nanoTime(), "x", "ROLE_USER"));
+		String token = jwtUtil.generateToken(new UsernamePasswordAuthenticationToken(user.getUsername(), null));
+		mockMvc.perform(post("/api/admin/users/bulk").header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+				.contentType(MediaType.APPLICATION_JSON).content("[]"))
+				.andExpect(status().isForbidden());
+	}
+
+	// -------------------------------
+	// HELPERS
+	// -------------------------------
+	private JsonNode provision(String body) throws Exception {
+		String response = mockMvc.perform(post("/api/admin/users/bulk").header(HttpHeaders.AUTHORIZATION, adminToken())
+				.contentType(MediaType.APPLICATION_JSON).content(body))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsString();
+		return objectMapper.readTree(response);
+	}
+
+	private String adminToken() {
+		return bearer(userRepository.save(new User(null, "bulk-admin-" + System.nanoTime(), "x", "ROLE_ADMIN")));
+	}
+
+	private String bearer(User user) {
+		return "Bearer " + jwtUtil.generateToken(new UsernamePasswordAuthenticationToken(user.getUsername(), null));
+	}
+
+	// The audit trail is written asynchronously: poll until the event is stored
+	private AuditEvent awaitAudit(String actor) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + 10_000;
+		List<AuditEvent> events = List.of();
+		while (events.isEmpty() && System.currentTimeMillis() < deadline) {
+			Thread.sleep(50);
+			events = auditLogRepository.find(AuditAction.USERS_PROVISIONED, actor, null, null, 1);
+		}
+		assertThat(events).hasSize(1);
+		return events.get(0);
+	}
+}
@@ -0,0 +1,102 @@
+package com.example.groceries_jwt_project.recommend;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class CoOccurrenceModelTest {
+
+	@Test
+	void ranksNeighboursByHowOftenTheyWereBoughtTogether() {
+		CoOccurrenceModel model = new CoOccurrenceModel(20, 256);
+		model.addBasket(new long[] { 1, 2, 3 });
+		model.addBasket(new long[] { 1, 2 });
+		model.addBasket(new long[] { 1, 2, 4 });
+		model.addBasket(new long[] { 1, 3 });
+
+		assertThat(model.recommend(1, 10)).containsExactly(
+				new Recommendation(2, 3), new Recommendation(3, 2), new Recommendation(4, 1));
+		assertThat(model.recommend(4, 10)).containsExactly(new Recommendation(1, 1), new Recommendation(2, 1));
+		assertThat(model.recommend(1, 1)).containsExactly(new Recommendation(2, 3));
+		assertThat(model.recommend(99, 10)).isEmpty();
+	}
+
+	// The heap is kept up to date one increment at a time; it must agree with a full sort of the counts
+	@Test
+	void topKMatchesTheExactTopKOfTheCounts() {
+		CoOccurrenceModel model = new CoOccurrenceModel(5, 1_000);
+		Map<Long, Integer> exact = new HashMap<>();
+		Random random = new Random(42);
+		for (int i = 0; i < 5_000; i++) {
+			// product 1 with one skewed partner: low ids come up far more often
+			long partner = 2 + (long) (Math.abs(random.nextGaussian()) * 30);
+			model.addBasket(new long[] { 1, partner });
+			exact.merge(partner, 1, Integer::sum);
+		}
+
+		long[] expected = exact.entrySet().stream()
+				.sorted(Map.Entry.<Long, Integer>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+				.limit(5).mapToLong(Map.Entry::getKey).toArray();
+		assertThat(model.recommend(1, 5)).extracting(Recommendation::productId).containsExactly(
+				expected[0], expected[1], expected[2], expected[3], expected[4]);
+	}
+
+	@Test
+	void aFullRowEvictsItsWeakestCounters() {
+		CoOccurrenceModel model = new CoOccurrenceModel(3, 3);
+		model.addBasket(new long[] { 1, 2 });
+		model.addBasket(new long[] { 1, 2 });
+		model.addBasket(new long[] { 1, 3 });
+		model.addBasket(new long[] { 1, 3 });
+		model.addBasket(new long[] { 1, 4 });
+		model.addBasket(new long[] { 1, 5 }); // row 1 is full: 4 (the weakest) makes room
+
+		assertThat(model.recommend(1, 10)).extracting(Recommendation::productId).containsExactly(2L, 3L, 5L);
+	}
+
+	@Test
+	void decayFadesWeightsAndForgetsRarePairs() {
+		CoOccurrenceModel model = new CoOccurrenceModel(20, 256);
+		for (int i = 0; i < 10; i++) {
+			model.addBasket(new long[] { 1, 2 });
+		}
+		model.addBasket(new long[] { 1, 3 });
+
+		model.decay(0.5f, 0.6f);
+
+		assertThat(model.recommend(1, 10)).containsExactly(new Recommendation(2, 5));
+		assertThat(model.recommend(3, 10)).isEmpty();
+		assertThat(model.products()).isEqualTo(2); // row 3 had nothing left
+	}
+
+	// k covers every neighbour here: with fewer, equal weights at the cut-off may be admitted in another order
+	@Test
+	void snapshotRestoresTheSameRecommendations() throws IOException {
+		CoOccurrenceModel model = new CoOccurrenceModel(50, 256);
+		Random random = new Random(7);
+		for (int i = 0; i < 1_000; i++) {
+			long a = 1 + random.nextInt(50);
+			long b = 51 + random.nextInt(50);
+			model.addBasket(new long[] { a, b });
+		}
+
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		model.writeTo(new DataOutputStream(bytes));
+		CoOccurrenceModel restored = new CoOccurrenceModel(50, 256);
+		restored.readFrom(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+
+		assertThat(restored.products()).isEqualTo(model.products());
+		for (long product = 1; product <= 100; product++) {
+			assertThat(restored.recommend(product, 50)).isEqualTo(model.recommend(product, 50));
+		}
+	}
+}
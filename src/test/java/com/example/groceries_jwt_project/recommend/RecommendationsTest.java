@@ -0,0 +1,107 @@
+package com.example.groceries_jwt_project.recommend;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.example.groceries_jwt_project.entity.Groceries;
+import com.example.groceries_jwt_project.entity.User;
+import com.example.groceries_jwt_project.repository.GroceriesRepository;
+import com.example.groceries_jwt_project.repository.UserRepository;
+import com.example.groceries_jwt_project.security.MyUserDetails;
+import com.example.groceries_jwt_project.service.CartService;
+
+/**
+ * Checkout → model → GET /api/groceries/{id}/recommendations, without any batch step in between.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class RecommendationsTest {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private CartService cartService;
+
+	@Autowired
+	private GroceriesRepository groceriesRepository;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@AfterEach
+	void clearUser() {
+		SecurityContextHolder.clearContext();
+	}
+
+	@Test
+	void checkedOutBasketsAreRecommendedRightAway() throws Exception {
+		Groceries bread = product("bread");
+		Groceries butter = product("butter");
+		Groceries jam = product("jam");
+
+		checkout(bread, butter);
+		checkout(bread, butter, jam);
+
+		mockMvc.perform(get("/api/groceries/" + bread.getId() + "/recommendations"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.length()").value(2))
+				.andExpect(jsonPath("$[0].productId").value(butter.getId()))
+				.andExpect(jsonPath("$[0].score").value(2.0))
+				.andExpect(jsonPath("$[1].productId").value(jam.getId()));
+		mockMvc.perform(get("/api/groceries/" + jam.getId() + "/recommendations?limit=1"))
+				.andExpect(jsonPath("$.length()").value(1));
+	}
+
+	@Test
+	void aFailedCheckoutTeachesNothing() throws Exception {
+		Groceries milk = product("milk");
+		Groceries rare = groceriesRepository.save(Groceries.builder().name("rare").price(1.0).quantity(1).build());
+
+		signIn();
+		cartService.addItem(milk.getId(), 1);
+		cartService.addItem(rare.getId(), 2); // more than in stock: the checkout rolls back
+		try {
+			cartService.checkout();
+		} catch (RuntimeException expected) {
+			// insufficient stock
+		}
+
+		mockMvc.perform(get("/api/groceries/" + milk.getId() + "/recommendations"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.length()").value(0));
+	}
+
+	// -------------------------------
+	// HELPERS
+	// -------------------------------
+	private Groceries product(String name) {
+		return groceriesRepository.save(Groceries.builder().name(name + "-" + System.nanoTime()).price(1.0).quantity(100).build());
+	}
+
+	private void checkout(Groceries... products) {
+		signIn();
+		for (Groceries product : products) {
+			cartService.addItem(product.getId(), 1);
+		}
+		cartService.checkout();
+	}
+
+	private void signIn() {
+		User user = userRepository.save(new User(null, "recommend-" + System.nanoTime(), "x", "ROLE_USER"));
+		SecurityContextHolder.getContext()
+				.setAuthentication(new UsernamePasswordAuthenticationToken(new MyUserDetails(user), null, List.of()));
+	}
+}
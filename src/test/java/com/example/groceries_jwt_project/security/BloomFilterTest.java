@@ -0,0 +1,42 @@
+package com.example.groceries_jwt_project.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+
+class BloomFilterTest {
+
+	@Test
+	void neverReportsAnAddedValueAsAbsent() {
+		BloomFilter filter = new BloomFilter(10_000, 0.01);
+		String[] added = new String[10_000];
+		for (int i = 0; i < added.length; i++) {
+			added[i] = UUID.randomUUID().toString();
+			filter.add(added[i]);
+		}
+
+		for (String jti : added) {
+			assertThat(filter.mightContain(jti)).isTrue();
+		}
+	}
+
+	@Test
+	void falsePositiveRateStaysNearTheConfiguredRate() {
+		BloomFilter filter = new BloomFilter(10_000, 0.01);
+		for (int i = 0; i < 10_000; i++) {
+			filter.add(UUID.randomUUID().toString());
+		}
+
+		int falsePositives = 0;
+		int probes = 100_000;
+		for (int i = 0; i < probes; i++) {
+			if (filter.mightContain(UUID.randomUUID().toString())) {
+				falsePositives++;
+			}
+		}
+
+		assertThat((double) falsePositives / probes).isLessThan(0.02);
+	}
+}
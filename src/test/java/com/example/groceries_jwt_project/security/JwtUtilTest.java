@@ -0,0 +1,176 @@
+package com.example.groceries_jwt_project.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import io.jsonwebtoken.JwtException;
+
+class JwtUtilTest {
+
+	private static final long EXPIRATION_MS = 3_600_000;
+
+	@ParameterizedTest
+	@ValueSource(strings = { "HS256", "ES256", "EdDSA" })
+	void tokenRoundTripsForEveryAlgorithm(String algorithm) {
+		JwtUtil jwtUtil = jwtUtil(keyRing(algorithm));
+
+		String token = jwtUtil.generateToken(new UsernamePasswordAuthenticationToken("aditya", null));
+
+		assertThat(jwtUtil.extractUsername(token)).isEqualTo("aditya");
+	}
+
+	@Test
+	void retiredKeyStillVerifiesAfterRotation() {
+		JwtKeyRing keyRing = keyRing("ES256");
+		JwtUtil jwtUtil = jwtUtil(keyRing);
+		String oldToken = jwtUtil.generateToken(new UsernamePasswordAuthenticationToken("aditya", null));
+		String oldKid = keyRing.getActiveKey().getKid();
+
+		keyRing.rotate();
+
+		assertThat(keyRing.getActiveKey().getKid()).isNotEqualTo(oldKid);
+		assertThat(jwtUtil.extractUsername(oldToken)).isEqualTo("aditya");
+		// retired + new active + pre-published next
+		assertThat(keyRing.getPublishedKeys()).hasSize(3);
+		assertThat(keyRing.getJwksJson()).contains(oldKid);
+	}
+
+	@Test
+	void tokenFromAnotherKeyRingIsRejected() {
+		JwtUtil issuer = jwtUtil(keyRing("EdDSA"));
+		JwtUtil verifier = jwtUtil(keyRing("EdDSA"));
+
+		String token = issuer.generateToken(new UsernamePasswordAuthenticationToken("aditya", null));
+
+		assertThatThrownBy(() -> verifier.extractUsername(token)).isInstanceOf(JwtException.class);
+	}
+
+	@Test
+	void tokenSignedOnOneNodeVerifiesOnAnotherSharingTheKeyTable() {
+		JwtKeyRepository keyTable = keyTable();
+		JwtKeyRing ringA = keyRing("ES256", keyTable);
+		JwtKeyRing ringB = keyRing("ES256", keyTable);
+		JwtUtil nodeA = jwtUtil(ringA);
+		JwtUtil nodeB = jwtUtil(ringB);
+
+		assertThat(ringB.getActiveKey().getKid()).isEqualTo(ringA.getActiveKey().getKid());
+		assertThat(nodeB.extractUsername(nodeA.generateToken(new UsernamePasswordAuthenticationToken("aditya", null))))
+				.isEqualTo("aditya");
+		assertThat(nodeA.extractUsername(nodeB.generateToken(new UsernamePasswordAuthenticationToken("neha", null))))
+				.isEqualTo("neha");
+	}
+
+	@Test
+	void rotationOnOneNodeIsSharedAndSurvivesARestart() {
+		JwtKeyRepository keyTable = keyTable();
+		JwtKeyRing ringA = keyRing("EdDSA", keyTable);
+		JwtKeyRing ringB = keyRing("EdDSA", keyTable);
+		JwtUtil nodeA = jwtUtil(ringA);
+		String beforeRotation = nodeA.generateToken(new UsernamePasswordAuthenticationToken("aditya", null));
+
+		ringA.rotate();
+		ringA.rotate();
+		// Signed with a key B has never seen: B looks it up in the table instead of rejecting the token
+		String afterRotation = nodeA.generateToken(new UsernamePasswordAuthenticationToken("aditya", null));
+		allowReload(ringB);
+		assertThat(jwtUtil(ringB).extractUsername(afterRotation)).isEqualTo("aditya");
+
+		// A restarted node loads the same ring: old tokens still verify and it signs with the shared ACTIVE key
+		JwtKeyRing restarted = keyRing("EdDSA", keyTable);
+		assertThat(restarted.getActiveKey().getKid()).isEqualTo(ringA.getActiveKey().getKid());
+		assertThat(jwtUtil(restarted).extractUsername(beforeRotation)).isEqualTo("aditya");
+
+		// The other node's rotation check sees the rotation already done and does not rotate again
+		ringB.refresh();
+		assertThat(ringB.getActiveKey().getKid()).isEqualTo(ringA.getActiveKey().getKid());
+		assertThat(keyTable.findLive("EdDSA", Instant.now())).hasSize(4); // 2 retired, active, next
+	}
+
+	@Test
+	void unknownKidsReadTheTableOnlyOncePerInterval() {
+		JwtKeyRepository keyTable = keyTable();
+		JwtKeyRing ringA = keyRing("ES256", keyTable);
+		JwtKeyRing ringB = keyRing("ES256", keyTable);
+		allowReload(ringB);
+		assertThat(ringB.findVerificationKey("forged")).isNull(); // takes this interval's reload
+
+		ringA.rotate();
+		ringA.rotate(); // A now signs with a key B has never loaded
+		// Rejected without a table read: only the next interval would find the new key
+		assertThat(ringB.findVerificationKey(ringA.getActiveKey().getKid())).isNull();
+		allowReload(ringB);
+		assertThat(ringB.findVerificationKey(ringA.getActiveKey().getKid())).isNotNull();
+	}
+
+	@Test
+	void aDeletedActiveKeyIsRecreatedInsteadOfBreakingRotation() {
+		JwtKeyRepository keyTable = keyTable();
+		JwtKeyRing keyRing = keyRing("EdDSA", keyTable);
+		JdbcTemplate jdbcTemplate = (JdbcTemplate) ReflectionTestUtils.getField(keyTable, "jdbcTemplate");
+		jdbcTemplate.update("DELETE FROM jwt_signing_keys WHERE state = 'ACTIVE'");
+
+		keyRing.refresh();
+		keyRing.rotate();
+
+		assertThat(keyRing.getActiveKey()).isNotNull();
+		assertThat(jwtUtil(keyRing).extractUsername(
+				jwtUtil(keyRing).generateToken(new UsernamePasswordAuthenticationToken("aditya", null)))).isEqualTo("aditya");
+		assertThat(keyTable.findLive("EdDSA", Instant.now())).hasSize(3); // retired, active, next
+	}
+
+	@Test
+	void jwksIsEmptyInHs256Mode() {
+		assertThat(keyRing("HS256").getJwksJson()).isEqualTo("{\"keys\":[]}");
+	}
+
+	// -------------------------------
+	// HELPERS
+	// -------------------------------
+	private static JwtKeyRing keyRing(String algorithm) {
+		return keyRing(algorithm, null);
+	}
+
+	private static JwtKeyRing keyRing(String algorithm, JwtKeyRepository keyTable) {
+		JwtKeyRing keyRing = new JwtKeyRing();
+		ReflectionTestUtils.setField(keyRing, "algorithmName", algorithm);
+		ReflectionTestUtils.setField(keyRing, "expiration", EXPIRATION_MS);
+		ReflectionTestUtils.setField(keyRing, "clockSkew", 60_000L);
+		ReflectionTestUtils.setField(keyRing, "rotationInterval", 43_200_000L);
+		ReflectionTestUtils.setField(keyRing, "keyRepository", keyTable);
+		keyRing.init();
+		return keyRing;
+	}
+
+	// A fresh embedded database per test, migrated like the real one: the table the nodes share
+	private static JwtKeyRepository keyTable() {
+		String url = "jdbc:h2:mem:jwt_keys_" + System.nanoTime() + ";MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+		Flyway.configure().dataSource(url, "sa", "").load().migrate();
+		return new JwtKeyRepository(new JdbcTemplate(new DriverManagerDataSource(url, "sa", "")));
+	}
+
+	// Lets the next unknown kid re-read the table without waiting for the rate limit
+	private static void allowReload(JwtKeyRing keyRing) {
+		((AtomicLong) ReflectionTestUtils.getField(keyRing, "lastReload")).set(0);
+	}
+
+	private static JwtUtil jwtUtil(JwtKeyRing keyRing) {
+		JwtUtil jwtUtil = new JwtUtil();
+		ReflectionTestUtils.setField(jwtUtil, "secret", "dGVzdC1zZWNyZXQtZm9yLWdyb2Nlcmllcy1qd3QtcHJvamVjdC10ZXN0cw==");
+		ReflectionTestUtils.setField(jwtUtil, "expiration", EXPIRATION_MS);
+		ReflectionTestUtils.setField(jwtUtil, "keyRing", keyRing);
+		jwtUtil.initKey();
+		return jwtUtil;
+	}
+}
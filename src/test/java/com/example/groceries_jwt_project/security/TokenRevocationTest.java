@@ -0,0 +1,112 @@
+package com.example.groceries_jwt_project.security;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.time.Instant;
+import java.util.Date;
+
+import javax.crypto.SecretKey;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.example.groceries_jwt_project.entity.RevokedToken;
+import com.example.groceries_jwt_project.repository.RevokedTokenRepository;
+
+import io.jsonwebtoken.Jwts;
+
+/**
+ * POST /auth/logout end to end: the revoked token stops working at once, other tokens of the
+ * same user keep working, and revocations survive (and are picked up by) the periodic refresh.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class TokenRevocationTest {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private JwtUtil jwtUtil;
+
+	@Autowired
+	private TokenRevocationService revocationService;
+
+	@Autowired
+	private RevokedTokenRepository revokedTokenRepository;
+
+	@Test
+	void loggedOutTokenIsRejectedWhileAFreshOneWorks() throws Exception {
+		String credentials = register("logout");
+		String token = login(credentials);
+		expectCart(token, 200);
+
+		mockMvc.perform(post("/auth/logout").header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+				.andExpect(status().isOk());
+		expectCart(token, 401);
+
+		String fresh = login(credentials);
+		expectCart(fresh, 200);
+
+		// The filter is rebuilt from revoked_tokens: the logout is still there afterwards
+		revocationService.refresh();
+		expectCart(token, 401);
+		expectCart(fresh, 200);
+	}
+
+	@Test
+	void revocationFromAnotherNodeAppliesAfterTheRefresh() throws Exception {
+		String token = login(register("other-node"));
+		expectCart(token, 200);
+
+		// Another node's logout: only the shared table knows about it until this node refreshes
+		revokedTokenRepository.save(new RevokedToken(jwtUtil.parseClaims(token).getId(), Instant.now().plusSeconds(3600)));
+		expectCart(token, 200);
+
+		revocationService.refresh();
+		expectCart(token, 401);
+	}
+
+	@Test
+	void aTokenWithoutAnIdIsNotReportedAsLoggedOut() throws Exception {
+		String username = jwtUtil.extractUsername(login(register("legacy")));
+		// Shaped like the tokens issued before revocation existed: no "jti"
+		String legacy = Jwts.builder().subject(username).issuedAt(new Date())
+				.expiration(new Date(System.currentTimeMillis() + 3_600_000))
+				.signWith((SecretKey) ReflectionTestUtils.getField(jwtUtil, "signingKey")).compact();
+		expectCart(legacy, 200);
+
+		mockMvc.perform(post("/auth/logout").header(HttpHeaders.AUTHORIZATION, "Bearer " + legacy))
+				.andExpect(status().isBadRequest());
+		expectCart(legacy, 200);
+	}
+
+	// -------------------------------
+	// HELPERS
+	// -------------------------------
+	private String register(String prefix) throws Exception {
+		String credentials = "{\"username\":\"" + prefix + "-" + System.nanoTime() + "\",\"password\":\"secret\"}";
+		mockMvc.perform(post("/auth/register").contentType(MediaType.APPLICATION_JSON).content(credentials))
+				.andExpect(status().isOk());
+		return credentials;
+	}
+
+	private String login(String credentials) throws Exception {
+		return mockMvc.perform(post("/auth/login").contentType(MediaType.APPLICATION_JSON).content(credentials))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsString();
+	}
+
+	private void expectCart(String token, int status) throws Exception {
+		mockMvc.perform(get("/api/cart").header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+				.andExpect(status().is(status));
+	}
+}
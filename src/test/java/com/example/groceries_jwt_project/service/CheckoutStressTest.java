@@ -0,0 +1,263 @@
+package com.example.groceries_jwt_project.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.example.groceries_jwt_project.entity.Cart;
+import com.example.groceries_jwt_project.entity.Groceries;
+import com.example.groceries_jwt_project.entity.User;
+import com.example.groceries_jwt_project.exception.InsufficientStockException;
+import com.example.groceries_jwt_project.repository.CartRepository;
+import com.example.groceries_jwt_project.repository.GroceriesRepository;
+import com.example.groceries_jwt_project.repository.UserRepository;
+import com.example.groceries_jwt_project.security.MyUserDetails;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Flash-sale stress test: many users check out the same few low-stock products at once,
+ * under every StockService locking strategy. Asserts the invariants and logs throughput
+ * plus abort/retry rates so the strategies can be compared.
+ *
+ * Defaults are small enough for the normal build. Scale up with e.g.
+ *   ./mvnw test -Dtest=CheckoutStressTest -Dstress.users=2000 -Dstress.threads=64 -Dstress.stock=500
+ */
+@SpringBootTest
+class CheckoutStressTest {
+
+	private static final Logger log = LoggerFactory.getLogger(CheckoutStressTest.class);
+
+	private static final int USERS = Integer.getInteger("stress.users", 120);
+	private static final int THREADS = Integer.getInteger("stress.threads", 16);
+	private static final int STOCK = Integer.getInteger("stress.stock", 60);
+	private static final int PRODUCTS = 3;
+
+	private enum Outcome { COMMITTED, INSUFFICIENT, CONFLICT, FAILED }
+
+	@Autowired
+	private CartService cartService;
+
+	@Autowired
+	private GroceriesService groceriesService;
+
+	@Autowired
+	private StockService stockService;
+
+	@Autowired
+	private GroceriesRepository groceriesRepository;
+
+	@Autowired
+	private CartRepository cartRepository;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	private final Random random = new Random(42);
+
+	@AfterEach
+	void restoreStrategy() {
+		useLocking(StockService.Locking.CONDITIONAL);
+	}
+
+	@ParameterizedTest
+	@EnumSource(StockService.Locking.class)
+	void concurrentCheckoutsNeverOversell(StockService.Locking locking) throws Exception {
+		useLocking(locking);
+		String run = locking.name().toLowerCase() + "-" + System.nanoTime();
+		List<Long> products = seedProducts(run);
+
+		// Every user wants 1..3 units of two hot products; total demand is well above stock
+		Map<Long, Map<Long, Integer>> wanted = new HashMap<>();
+		List<User> users = new ArrayList<>();
+		for (int i = 0; i < USERS; i++) {
+			User user = userRepository.save(new User(null, run + "-user-" + i, "x", "ROLE_USER"));
+			users.add(user);
+			Map<Long, Integer> lines = new HashMap<>();
+			for (int line = 0; line < 2; line++) {
+				Long productId = products.get(random.nextInt(PRODUCTS));
+				int quantity = 1 + random.nextInt(3);
+				cartRepository.save(Cart.builder().userId(user.getId()).productId(productId)
+						.quantity(quantity).totalPrice(quantity).build());
+				lines.merge(productId, quantity, Integer::sum);
+			}
+			wanted.put(user.getId(), lines);
+		}
+
+		// One checkout per user, plus a "double click" for every fifth user
+		List<User> submissions = new ArrayList<>(users);
+		for (int i = 0; i < users.size(); i += 5) {
+			submissions.add(users.get(i));
+		}
+
+		Map<Outcome, AtomicInteger> outcomes = new ConcurrentHashMap<>();
+		Map<Long, AtomicInteger> commitsPerUser = new ConcurrentHashMap<>();
+		List<String> failures = new ArrayList<>();
+		double retriesBefore = meterRegistry.counter("stock.decrement.retries").count();
+
+		ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+		CountDownLatch go = new CountDownLatch(1);
+		List<Future<?>> futures = new ArrayList<>();
+		for (User user : submissions) {
+			futures.add(pool.submit(() -> {
+				go.await();
+				Outcome outcome = checkoutAs(user, failures);
+				outcomes.computeIfAbsent(outcome, k -> new AtomicInteger()).incrementAndGet();
+				if (outcome == Outcome.COMMITTED) {
+					commitsPerUser.computeIfAbsent(user.getId(), k -> new AtomicInteger()).incrementAndGet();
+				}
+				return null;
+			}));
+		}
+		long start = System.nanoTime();
+		go.countDown();
+		for (Future<?> future : futures) {
+			future.get();
+		}
+		long elapsedNanos = System.nanoTime() - start;
+		pool.shutdown();
+
+		report(locking, submissions.size(), outcomes, elapsedNanos,
+				meterRegistry.counter("stock.decrement.retries").count() - retriesBefore);
+
+		// --- invariants ---
+		assertThat(failures).as("unexpected checkout failures").isEmpty();
+		assertThat(commitsPerUser.values()).as("a cart is checked out at most once")
+				.allSatisfy(count -> assertThat(count.get()).isEqualTo(1));
+
+		Map<Long, Integer> sold = new HashMap<>();
+		for (User user : users) {
+			int remainingLines = cartRepository.findByUserId(user.getId()).size();
+			if (commitsPerUser.containsKey(user.getId())) {
+				assertThat(remainingLines).as("cart of a committed checkout is cleared").isZero();
+				wanted.get(user.getId()).forEach((productId, quantity) -> sold.merge(productId, quantity, Integer::sum));
+			} else {
+				assertThat(remainingLines).as("aborted checkout leaves the cart untouched").isEqualTo(2);
+			}
+		}
+		for (Long productId : products) {
+			int stock = groceriesRepository.findById(productId).orElseThrow().getQuantity();
+			assertThat(stock).as("stock never negative").isGreaterThanOrEqualTo(0);
+			assertThat(STOCK - stock).as("units sold == stock decrement").isEqualTo(sold.getOrDefault(productId, 0));
+		}
+	}
+
+	@ParameterizedTest
+	@EnumSource(StockService.Locking.class)
+	void concurrentReduceStockStopsAtZero(StockService.Locking locking) throws Exception {
+		useLocking(locking);
+		String run = locking.name().toLowerCase() + "-reduce-" + System.nanoTime();
+		Long productId = seedProducts(run).get(0);
+		int attempts = STOCK * 3;
+
+		AtomicInteger sold = new AtomicInteger();
+		Set<String> soldOutMessages = ConcurrentHashMap.newKeySet();
+		ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+		List<Future<?>> futures = new ArrayList<>();
+		for (int i = 0; i < attempts; i++) {
+			futures.add(pool.submit(() -> {
+				try {
+					groceriesService.reduceStock(productId, 1);
+					sold.incrementAndGet();
+				} catch (InsufficientStockException e) {
+					soldOutMessages.add(e.getMessage()); // sold out: an abort, not an oversell
+				} catch (ConcurrencyFailureException e) {
+					// lost every optimistic retry: also an abort
+				}
+			}));
+		}
+		for (Future<?> future : futures) {
+			future.get();
+		}
+		pool.shutdown();
+
+		int stock = groceriesRepository.findById(productId).orElseThrow().getQuantity();
+		assertThat(stock).isGreaterThanOrEqualTo(0);
+		assertThat(STOCK - stock).isEqualTo(sold.get());
+		// Every strategy names the product, not its id
+		assertThat(soldOutMessages).containsExactly("Insufficient stock for product: " + run + "-product-0");
+	}
+
+	private Outcome checkoutAs(User user, List<String> failures) {
+		SecurityContextHolder.getContext().setAuthentication(
+				new UsernamePasswordAuthenticationToken(new MyUserDetails(user), null, List.of()));
+		try {
+			return cartService.checkout() ? Outcome.COMMITTED : Outcome.CONFLICT; // empty cart: the other click won
+		} catch (ConcurrencyFailureException e) {
+			return Outcome.CONFLICT;
+		} catch (InsufficientStockException e) {
+			return Outcome.INSUFFICIENT;
+		} catch (RuntimeException e) {
+			synchronized (failures) {
+				failures.add(e.getClass().getName() + ": " + e.getMessage());
+			}
+			return Outcome.FAILED;
+		} finally {
+			SecurityContextHolder.clearContext();
+		}
+	}
+
+	private List<Long> seedProducts(String run) {
+		List<Long> ids = new ArrayList<>();
+		for (int i = 0; i < PRODUCTS; i++) {
+			ids.add(groceriesRepository.save(Groceries.builder().name(run + "-product-" + i)
+					.price(1.0).quantity(STOCK).build()).getId());
+		}
+		return ids;
+	}
+
+	private void useLocking(StockService.Locking locking) {
+		StockService target = AopTestUtils.getTargetObject(stockService);
+		ReflectionTestUtils.setField(target, "locking", locking);
+	}
+
+	private static void report(StockService.Locking locking, int submitted, Map<Outcome, AtomicInteger> outcomes,
+			long elapsedNanos, double retries) {
+		double seconds = elapsedNanos / 1e9;
+		int aborted = submitted - count(outcomes, Outcome.COMMITTED);
+		log.atInfo().setMessage("Checkout stress result")
+				.addKeyValue("locking", locking)
+				.addKeyValue("submitted", submitted)
+				.addKeyValue("committed", count(outcomes, Outcome.COMMITTED))
+				.addKeyValue("insufficient", count(outcomes, Outcome.INSUFFICIENT))
+				.addKeyValue("conflict", count(outcomes, Outcome.CONFLICT))
+				.addKeyValue("abortRatePercent", String.format("%.1f", 100.0 * aborted / submitted))
+				.addKeyValue("retries", (long) retries)
+				.addKeyValue("checkoutsPerSecond", String.format("%.1f", submitted / seconds))
+				.addKeyValue("elapsedMs", elapsedNanos / 1_000_000)
+				.addKeyValue("threads", THREADS)
+				.log();
+	}
+
+	private static int count(Map<Outcome, AtomicInteger> outcomes, Outcome outcome) {
+		AtomicInteger value = outcomes.get(outcome);
+		return value == null ? 0 : value.get();
+	}
+}
@@ -0,0 +1,44 @@
+package com.example.groceries_jwt_project.warmup;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.health.CompositeHealth;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthComponent;
+import org.springframework.boot.actuate.health.HealthEndpoint;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.boot.test.context.SpringBootTest;
+
+/**
+ * The readiness group waits for the warm-up and reports its stage timings once it is done.
+ */
+@SpringBootTest
+class WarmupReadinessTest {
+
+	@Autowired
+	private WarmupService warmupService;
+
+	@Autowired
+	private HealthEndpoint healthEndpoint;
+
+	@Test
+	void readinessTurnsUpAfterEveryStageRan() throws InterruptedException {
+		long deadline = System.currentTimeMillis() + 30_000;
+		while (!warmupService.isDone() && System.currentTimeMillis() < deadline) {
+			Thread.sleep(50);
+		}
+		assertThat(warmupService.isDone()).isTrue();
+
+		HealthComponent readiness = healthEndpoint.healthForPath("readiness");
+		assertThat(readiness.getStatus()).isEqualTo(Status.UP);
+
+		Health warmup = (Health) ((CompositeHealth) readiness).getComponents().get("warmup");
+		assertThat(warmup.getDetails()).doesNotContainKey("failure").containsEntry("state", "done");
+		assertThat(((Map<String, ?>) warmup.getDetails().get("stagesMs")).keySet())
+				.containsExactly("connection_pool", "catalog", "jwt", "json");
+	}
+}